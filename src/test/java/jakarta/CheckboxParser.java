@@ -0,0 +1,277 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import jakarta.PRTests.CheckboxItem;
+import jakarta.PRTests.CheckboxItemRecord;
+
+/**
+ * Single pass parser of the checkbox items of a PR body. It walks the body once, finds line ends with a plain scan
+ * instead of splitting, and recognises checkbox lines with a hand-rolled equivalent of {@link PRTests#PATTERN}, so the
+ * only allocations are the records and their info and value strings. Bodies that are not in memory as a whole, such
+ * as multi-megabyte bodies or webhook payloads read off the socket, can be parsed from a {@link Reader} or UTF-8
+ * {@link ByteBuffer} with the same result; the records are then emitted as soon as they are complete.
+ */
+final class CheckboxParser {
+    /** Shared copy of {@link CheckboxItem#values()}, which clones the array on every call */
+    static final CheckboxItem[] ITEMS = CheckboxItem.values();
+    static final int CHUNK_SIZE = 8192;
+
+    private CheckboxParser() {}
+
+    /**
+     * Parse the PR body into CheckboxItemRecords, with the same result as matching every line of the body against
+     * {@link PRTests#PATTERN}. A checkbox line starts a record whose info is the text after the box. The first
+     * non-blank line after it, trimmed, is the record's value.
+     *
+     * @param body - body of main PR comment
+     * @return list of parsed records
+     * @throws ArrayIndexOutOfBoundsException - if the body has more checkboxes than there are {@link CheckboxItem}s
+     */
+    static List<CheckboxItemRecord> parse(CharSequence body) {
+        ArrayList<CheckboxItemRecord> records = new ArrayList<>(ITEMS.length);
+        CheckboxItemRecord current = null;
+        int length = body.length();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            while (end < length && body.charAt(end) != '\n') {
+                end++;
+            }
+            int close = checkboxEnd(body, start, end);
+            if (close >= 0) {
+                boolean checked = body.charAt(close - 1) == 'x' || indexOfChecked(body, close + 1, end) >= 0;
+                current = new CheckboxItemRecord(ITEMS[records.size()], body.subSequence(close + 1, end).toString(),
+                                                 "", checked);
+                records.add(current);
+            } else if (current != null && current.value.length() == 0) {
+                current.value = trim(body, start, end);
+            }
+            start = end + 1;
+        }
+        return records;
+    }
+
+    /**
+     * Parse a PR body read from a reader, emitting each record once its value is known, so the records of a large
+     * body are available before the body has been read to the end
+     *
+     * @param body - body of main PR comment, read to the end but not closed
+     * @param records - receives the records in body order
+     * @return the number of records
+     * @throws IOException - if reading fails
+     * @throws ArrayIndexOutOfBoundsException - if the body has more checkboxes than there are {@link CheckboxItem}s
+     */
+    static int parse(Reader body, Consumer<CheckboxItemRecord> records) throws IOException {
+        Incremental parser = new Incremental(records);
+        char[] chunk = new char[CHUNK_SIZE];
+        for (int read = body.read(chunk); read >= 0; read = body.read(chunk)) {
+            parser.feed(chunk, 0, read);
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parse a UTF-8 encoded PR body, decoding it a chunk at a time. Malformed input, including a character cut off by
+     * the end of the body, is replaced as by {@link String#String(byte[], java.nio.charset.Charset)}.
+     *
+     * @param utf8Body - body of main PR comment, consumed from its position to its limit
+     * @param records - receives the records in body order
+     * @return the number of records
+     * @throws ArrayIndexOutOfBoundsException - if the body has more checkboxes than there are {@link CheckboxItem}s
+     */
+    static int parse(ByteBuffer utf8Body, Consumer<CheckboxItemRecord> records) {
+        Incremental parser = new Incremental(records);
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chunk = CharBuffer.allocate(CHUNK_SIZE);
+        boolean endOfInput = false;
+        boolean flushed = false;
+        while (!flushed) {
+            // Decode, then at the end of the input close out the decoder and flush its last chars
+            if (!endOfInput) {
+                int position = utf8Body.position();
+                CoderResult result = decoder.decode(utf8Body, chunk, false);
+                // Bytes left after an underflow that consumed nothing are a character cut off by the end of the body
+                endOfInput = !utf8Body.hasRemaining() || result.isUnderflow() && utf8Body.position() == position;
+            }
+            if (endOfInput) {
+                decoder.decode(utf8Body, chunk, true);
+                flushed = decoder.flush(chunk).isUnderflow();
+            }
+            chunk.flip();
+            parser.feed(chunk.array(), chunk.position(), chunk.remaining());
+            chunk.clear();
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Push parser fed with the body a chunk at a time. It holds at most the current line, and not even that for lines
+     * it can tell are neither a checkbox nor the value of the previous checkbox, such as the lines of a pasted log.
+     */
+    static final class Incremental {
+        /** How much of a checkbox line prefix, spaces then "- [", box and "]", the current line has matched */
+        private static final int SPACES = 0, DASH = 1, SPACE = 2, OPEN = 3, BOX = 4, CLOSE = 5, NOT_CHECKBOX = -1;
+
+        private final Consumer<CheckboxItemRecord> records;
+        private final StringBuilder line = new StringBuilder();
+        private CheckboxItemRecord pending;
+        private int count;
+        private int prefix = SPACES;
+        private boolean skipping;
+
+        /**
+         * @param records - receives the records in body order
+         */
+        Incremental(Consumer<CheckboxItemRecord> records) {
+            this.records = records;
+        }
+
+        /**
+         * Parse the next chars of the body
+         * @param chars - holds the chars
+         * @param offset - index of the first char
+         * @param length - number of chars
+         */
+        void feed(char[] chars, int offset, int length) {
+            for (int n = offset; n < offset + length; n++) {
+                char c = chars[n];
+                if (c == '\n') {
+                    endLine();
+                } else if (!skipping) {
+                    line.append(c);
+                    prefix = advance(prefix, c);
+                    // Only a pending record's value or a checkbox line need the rest of the line
+                    if (prefix == NOT_CHECKBOX && pending == null) {
+                        skipping = true;
+                        line.setLength(0);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Parse the last line of the body and emit the last record
+         * @return the number of records
+         */
+        int finish() {
+            endLine();
+            if (pending != null) {
+                records.accept(pending);
+                pending = null;
+            }
+            return count;
+        }
+
+        private void endLine() {
+            if (!skipping) {
+                int close = prefix == CLOSE ? checkboxEnd(line, 0, line.length()) : -1;
+                if (close >= 0) {
+                    boolean checked = line.charAt(close - 1) == 'x' || indexOfChecked(line, close + 1, line.length()) >= 0;
+                    CheckboxItemRecord record = new CheckboxItemRecord(ITEMS[count], line.substring(close + 1), "", checked);
+                    count++;
+                    if (pending != null) {
+                        records.accept(pending);
+                    }
+                    pending = record;
+                } else if (pending != null) {
+                    pending.value = trim(line, 0, line.length());
+                    if (pending.value.length() > 0) {
+                        records.accept(pending);
+                        pending = null;
+                    }
+                }
+            }
+            line.setLength(0);
+            prefix = SPACES;
+            skipping = false;
+        }
+
+        private static int advance(int state, char c) {
+            switch (state) {
+                case SPACES:
+                    return c == ' ' ? SPACES : c == '-' ? DASH : NOT_CHECKBOX;
+                case DASH:
+                    return c == ' ' ? SPACE : NOT_CHECKBOX;
+                case SPACE:
+                    return c == '[' ? OPEN : NOT_CHECKBOX;
+                case OPEN:
+                    return c == ' ' || c == '|' || c == 'x' ? BOX : NOT_CHECKBOX;
+                case BOX:
+                    return c == ']' ? CLOSE : NOT_CHECKBOX;
+                default:
+                    return state;
+            }
+        }
+    }
+
+    /**
+     * Match the line against {@code ^\s*- \[[\s|x]\].*\r?}, where the Java string escape {@code \s} is a space. The
+     * {@code .} does not match the line terminators \r, U+0085, U+2028 and U+2029, so the only one allowed after the
+     * box is a single \r ending the line.
+     *
+     * @param line - the text holding the line
+     * @param start - index of the first character of the line
+     * @param end - index after the last character of the line, excluding the \n
+     * @return the index of the ] closing the box, or -1 if this is not a checkbox line
+     */
+    static int checkboxEnd(CharSequence line, int start, int end) {
+        int n = start;
+        while (n < end && line.charAt(n) == ' ') {
+            n++;
+        }
+        if (end - n < 5 || line.charAt(n) != '-' || line.charAt(n + 1) != ' ' || line.charAt(n + 2) != '['
+            || line.charAt(n + 4) != ']') {
+            return -1;
+        }
+        char box = line.charAt(n + 3);
+        if (box != ' ' && box != '|' && box != 'x') {
+            return -1;
+        }
+        int close = n + 4;
+        for (int i = close + 1; i < end; i++) {
+            char c = line.charAt(i);
+            if ((c == '\r' && i != end - 1) || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return -1;
+            }
+        }
+        return close;
+    }
+
+    /**
+     * @return the index of the first [x] in the range, or -1
+     */
+    static int indexOfChecked(CharSequence text, int start, int end) {
+        for (int n = start; n + 2 < end; n++) {
+            if (text.charAt(n) == '[' && text.charAt(n + 1) == 'x' && text.charAt(n + 2) == ']') {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@link String#trim()} of a range, without materialising the untrimmed range
+     */
+    static String trim(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return start == end ? "" : text.subSequence(start, end).toString();
+    }
+}
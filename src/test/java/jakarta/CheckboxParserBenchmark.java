@@ -0,0 +1,125 @@
+package jakarta;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import jakarta.PRTests.CheckboxItem;
+import jakarta.PRTests.CheckboxItemRecord;
+
+/**
+ * Time and allocation per parse of {@link CheckboxParser}, over a String and streaming from UTF-8 bytes, against the
+ * split and String.matches parser it replaced.
+ * The bodies are the filled PR template followed by pasted build log lines, from 1KB to 1MB. main runs with the GC
+ * profiler, whose gc.alloc.rate.norm is the bytes allocated per parse, and takes the usual JMH command line options.
+ * With the bench profile the same measurement runs as
+ *
+ * mvn -Pbench test -Djmh.args="CheckboxParserBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckboxParserBenchmark {
+    static final String LOG_LINE = "[INFO] Tests run: 42, Failures: 0, Errors: 0, Skipped: 0, Time elapsed: 1.23 s\n";
+
+    @Param({"1024", "16384", "131072", "1048576"})
+    int bodySize;
+
+    String body;
+    ByteBuffer utf8Body;
+
+    @Setup
+    public void setup() throws IOException {
+        body = body(bodySize);
+        utf8Body = ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param size - body length in chars
+     * @return the filled PR template followed by log lines, cut to size
+     */
+    static String body(int size) throws IOException {
+        String template = Files.readString(Path.of("src/test/resources/pr-bodies/template-filled.md"),
+                                           StandardCharsets.UTF_8);
+        StringBuilder body = new StringBuilder(size + LOG_LINE.length());
+        body.append(template, 0, Math.min(size, template.length()));
+        while (body.length() < size) {
+            body.append(LOG_LINE);
+        }
+        body.setLength(size);
+        return body.toString();
+    }
+
+    @Benchmark
+    public List<CheckboxItemRecord> singlePass() {
+        return CheckboxParser.parse(body);
+    }
+
+    @Benchmark
+    public int streamingUtf8(Blackhole records) {
+        return CheckboxParser.parse(utf8Body.duplicate(), records::consume);
+    }
+
+    @Benchmark
+    public List<CheckboxItemRecord> splitAndMatch() {
+        return splitAndMatch(body);
+    }
+
+    /**
+     * The parser before {@link CheckboxParser}, without its per-line logging
+     */
+    static List<CheckboxItemRecord> splitAndMatch(String body) {
+        String[] lines = body.split("\n");
+        ArrayList<CheckboxItemRecord> checkboxItems = new ArrayList<>();
+        CheckboxItemRecord currentRecord = new CheckboxItemRecord();
+        for (String line : lines) {
+            if (line.matches(PRTests.PATTERN)) {
+                currentRecord = new CheckboxItemRecord();
+                int prefix = line.indexOf(']');
+                currentRecord.info = line.substring(prefix + 1);
+                currentRecord.checked = line.indexOf("[x]") > 0;
+                currentRecord.item = CheckboxItem.values()[checkboxItems.size()];
+                checkboxItems.add(currentRecord);
+            } else if (checkboxItems.size() > 0 && currentRecord.value.length() == 0) {
+                currentRecord.value = line.trim();
+            }
+        }
+        return checkboxItems;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                       .parent(new CommandLineOptions(args))
+                       .include(CheckboxParserBenchmark.class.getSimpleName())
+                       .addProfiler(GCProfiler.class)
+                       .build())
+            .run();
+    }
+}
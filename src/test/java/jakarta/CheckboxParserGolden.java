@@ -0,0 +1,124 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import jakarta.PRTests.CheckboxItemRecord;
+
+/**
+ * Check the checkbox parser against golden files. Every PR body under the fixture directory, *.md, has a *.golden
+ * file next to it listing the records the parser produced for it, or the exception it threw. Each body is also
+ * parsed with the streaming variants of {@link CheckboxParser}, from a Reader and from the UTF-8 bytes of the file,
+ * which must give the same records, also for malformed UTF-8. Exits with status 1 if any body parses differently.
+ *
+ * Arguments: [--update] [fixture directory (src/test/resources/pr-bodies)]
+ * With --update the golden files are rewritten from the current parser instead of checked.
+ */
+public class CheckboxParserGolden {
+    public static void main(String[] args) throws IOException {
+        boolean update = args.length > 0 && args[0].equals("--update");
+        Path dir = Path.of(args.length > (update ? 1 : 0) ? args[update ? 1 : 0] : "src/test/resources/pr-bodies");
+        List<Path> bodies;
+        try (Stream<Path> files = Files.list(dir)) {
+            bodies = files.filter(f -> f.toString().endsWith(".md")).sorted().toList();
+        }
+        int failed = 0;
+        for (Path body : bodies) {
+            // Malformed UTF-8 is replaced, as the parse of the bytes does
+            byte[] utf8 = Files.readAllBytes(body);
+            String text = new String(utf8, StandardCharsets.UTF_8);
+            Path golden = Path.of(body.toString().replaceFirst("\\.md$", ".golden"));
+            String actual = render(() -> PRTests.parseCheckboxItems(text));
+            String fromReader = render(() -> streamed(records -> CheckboxParser.parse(new StringReader(text), records)));
+            String fromBytes = render(() -> streamed(records -> CheckboxParser.parse(ByteBuffer.wrap(utf8), records)));
+            if (update) {
+                Files.writeString(golden, actual, StandardCharsets.UTF_8);
+                System.out.printf("updated %s\n", golden);
+            } else if (!Files.isRegularFile(golden) || !Files.readString(golden, StandardCharsets.UTF_8).equals(actual)) {
+                failed++;
+                System.out.printf("--- %s differs from %s, parsed:\n%s", body, golden, actual);
+            } else if (!fromReader.equals(actual) || !fromBytes.equals(actual)) {
+                failed++;
+                System.out.printf("--- %s streams differently, from a Reader:\n%sfrom UTF-8:\n%s", body, fromReader,
+                                  fromBytes);
+            } else {
+                System.out.printf("+++ %s\n", body.getFileName());
+            }
+        }
+        System.out.printf("%d bodies, %d differ\n", bodies.size(), failed);
+        System.exit(failed > 0 ? 1 : 0);
+    }
+
+    /**
+     * Collect the records a streaming parse emits
+     */
+    static List<CheckboxItemRecord> streamed(StreamingParse parse) {
+        ArrayList<CheckboxItemRecord> records = new ArrayList<>();
+        try {
+            parse.parse(records::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    /**
+     * A parse emitting its records to a consumer
+     */
+    interface StreamingParse {
+        void parse(Consumer<CheckboxItemRecord> records) throws IOException;
+    }
+
+    /**
+     * @param parse - parses a PR body
+     * @return one line per parsed record, or the name of the exception the parser threw
+     */
+    static String render(Supplier<List<CheckboxItemRecord>> parse) {
+        // The parser logs its progress, keep the output to the results
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        StringBuilder text = new StringBuilder();
+        try {
+            for (CheckboxItemRecord record : parse.get()) {
+                text.append(record.item).append(" checked=").append(record.checked)
+                    .append(" info=\"").append(escape(record.info)).append("\" value=\"").append(escape(record.value))
+                    .append("\"\n");
+            }
+        } catch (RuntimeException e) {
+            text.append("exception: ").append(e.getClass().getName()).append('\n');
+        } finally {
+            System.setOut(out);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Make control and non-ASCII characters visible, so the golden files are plain ASCII lines
+     */
+    static String escape(String s) {
+        StringBuilder escaped = new StringBuilder(s.length());
+        for (int n = 0; n < s.length(); n++) {
+            char c = s.charAt(n);
+            if (c == '\\' || c == '"') {
+                escaped.append('\\').append(c);
+            } else if (c < ' ' || c > '~') {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Format of the assignee's spec review checklist comment. The rendered body ends with a hidden HTML comment holding a
+ * hash of the review, so an update can be skipped when the review has not changed without depending on how GitHub
+ * normalizes the stored body. The hash of a review is the same whether it is taken of the rendered String or streamed
+ * from the {@link ReviewResults}.
+ */
+final class ChecklistComment {
+    /** A comment starting with this header is the checklist comment of the PR */
+    static final String HEADER = "# Spec Review Checklist";
+    static final String MARKER_PREFIX = "<!-- review-hash:";
+    static final String MARKER_SUFFIX = " -->";
+    /** The renderer's fixed texts in UTF-8 */
+    static final Map<String, byte[]> UTF8_FRAGMENTS = new IdentityHashMap<>();
+
+    static {
+        for (String fragment : ReviewRenderer.FRAGMENTS) {
+            UTF8_FRAGMENTS.put(fragment, fragment.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private ChecklistComment() {}
+
+    /**
+     * @param commentBody - body of a PR comment
+     * @return true if the comment is a checklist comment
+     */
+    static boolean isChecklist(String commentBody) {
+        return commentBody != null && commentBody.startsWith(HEADER);
+    }
+
+    /**
+     * Build the comment body for a rendered review
+     * @param review - the rendered review
+     * @return the comment body, with the hash marker
+     */
+    static String body(String review) {
+        return HEADER + "\n" + review + "\n" + MARKER_PREFIX + hash(review) + MARKER_SUFFIX + "\n";
+    }
+
+    /**
+     * @param commentBody - the current body of the checklist comment
+     * @param reviewHash - {@link #hash} of the new review
+     * @return true if the comment already holds this review
+     */
+    static boolean isUnchanged(String commentBody, String reviewHash) {
+        int start = commentBody.lastIndexOf(MARKER_PREFIX);
+        if (start < 0) {
+            return false;
+        }
+        start += MARKER_PREFIX.length();
+        int end = commentBody.indexOf(MARKER_SUFFIX, start);
+        return end == start + reviewHash.length() && commentBody.startsWith(reviewHash, start);
+    }
+
+    /**
+     * @param review - the rendered review
+     * @return the first 64 bits of the review's SHA-256 in hex
+     */
+    static String hash(String review) {
+        MessageDigest digest = sha256();
+        return hex(digest.digest(review.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Hash a review without rendering it to a String
+     * @param review - the checks of a PR
+     * @return the first 64 bits of the rendered review's SHA-256 in hex
+     */
+    static String hash(ReviewResults review) {
+        Utf8Digest digest = new Utf8Digest();
+        try {
+            ReviewRenderer.render(review, digest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * @return a new SHA-256 digest
+     */
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is a required MessageDigest algorithm", e);
+        }
+    }
+
+    /**
+     * @param digest - a SHA-256
+     * @return its first 64 bits in hex
+     */
+    static String hex(byte[] digest) {
+        StringBuilder hex = new StringBuilder(16);
+        for (int n = 0; n < 8; n++) {
+            hex.append(Character.forDigit((digest[n] >> 4) & 0xf, 16)).append(Character.forDigit(digest[n] & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * SHA-256 of the UTF-8 encoding of the text appended to it, as {@link String#getBytes} encodes it: unpaired
+     * surrogates become '?'. Also counts the length of the text as JSON-escaped UTF-8, for the request bodies of
+     * {@link ChecklistRequestBody}.
+     */
+    static class Utf8Digest implements Appendable {
+        private final MessageDigest digest = sha256();
+        private final byte[] buffer = new byte[1024];
+        private int size;
+        long jsonLength;
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            if (csq instanceof String) {
+                byte[] utf8 = UTF8_FRAGMENTS.get(csq);
+                if (utf8 != null) {
+                    flush();
+                    digest.update(utf8);
+                    jsonLength += ChecklistRequestBody.JSON_FRAGMENTS.get(csq).length;
+                    return this;
+                }
+            }
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int n = start; n < end; n++) {
+                char c = csq.charAt(n);
+                if (Character.isHighSurrogate(c) && n + 1 < end && Character.isLowSurrogate(csq.charAt(n + 1))) {
+                    int codePoint = Character.toCodePoint(c, csq.charAt(++n));
+                    reserve(4);
+                    buffer[size++] = (byte) (0xf0 | codePoint >> 18);
+                    buffer[size++] = (byte) (0x80 | (codePoint >> 12) & 0x3f);
+                    buffer[size++] = (byte) (0x80 | (codePoint >> 6) & 0x3f);
+                    buffer[size++] = (byte) (0x80 | codePoint & 0x3f);
+                    jsonLength += 4;
+                } else {
+                    append(c);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            reserve(3);
+            if (c < 0x80) {
+                buffer[size++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[size++] = (byte) (0xc0 | c >> 6);
+                buffer[size++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                buffer[size++] = '?';
+            } else {
+                buffer[size++] = (byte) (0xe0 | c >> 12);
+                buffer[size++] = (byte) (0x80 | (c >> 6) & 0x3f);
+                buffer[size++] = (byte) (0x80 | c & 0x3f);
+            }
+            jsonLength += ChecklistRequestBody.jsonLength(c);
+            return this;
+        }
+
+        /**
+         * @return the SHA-256 of the text appended so far
+         */
+        byte[] digest() {
+            flush();
+            return digest.digest();
+        }
+
+        private void reserve(int bytes) {
+            if (size + bytes > buffer.length) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            digest.update(buffer, 0, size);
+            size = 0;
+        }
+    }
+}
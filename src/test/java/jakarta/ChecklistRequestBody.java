@@ -0,0 +1,179 @@
+package jakarta;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+
+/**
+ * The JSON request body, {"body": "..."}, of a checklist comment update, rendered from the {@link ReviewResults}
+ * straight into the request stream. The review is UTF-8 encoded and JSON escaped as it is written, with the
+ * renderer's fixed texts escaped and encoded once up front, so neither the review, the comment body nor the JSON
+ * document exists as a whole in memory. The hash marker of {@link ChecklistComment} and the content length come from
+ * a first rendering pass that only counts and hashes.
+ */
+final class ChecklistRequestBody extends RequestBody {
+    /** The renderer's fixed texts as JSON string content in UTF-8 */
+    static final Map<String, byte[]> JSON_FRAGMENTS = new IdentityHashMap<>();
+
+    static {
+        for (String fragment : ReviewRenderer.FRAGMENTS) {
+            JSON_FRAGMENTS.put(fragment, escape(fragment));
+        }
+    }
+
+    static final byte[] START = escape("{\"body\":\"", ChecklistComment.HEADER + "\n");
+    static final byte[] MARKER_START = escape("", "\n" + ChecklistComment.MARKER_PREFIX);
+    static final byte[] END = escape("", ChecklistComment.MARKER_SUFFIX + "\n", "\"}");
+
+    final ReviewResults review;
+    final String hash;
+    final long contentLength;
+
+    /**
+     * @param review - the checks of a PR
+     */
+    ChecklistRequestBody(ReviewResults review) {
+        this.review = review;
+        ChecklistComment.Utf8Digest digest = new ChecklistComment.Utf8Digest();
+        try {
+            ReviewRenderer.render(review, digest);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        this.hash = ChecklistComment.hex(digest.digest());
+        this.contentLength = START.length + digest.jsonLength + MARKER_START.length + hash.length() + END.length;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return GitHubRest.JSON;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        sink.write(START);
+        ReviewRenderer.render(review, new JsonString(sink));
+        sink.write(MARKER_START);
+        sink.writeUtf8(hash);
+        sink.write(END);
+    }
+
+    /**
+     * @param c - a char of a JSON string
+     * @return the length of c escaped and UTF-8 encoded, an unpaired surrogate taking the length of its '?'
+     */
+    static int jsonLength(char c) {
+        if (c == '"' || c == '\\' || c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\f') {
+            return 2;
+        } else if (c < 0x20) {
+            return 6;
+        } else if (c < 0x80 || Character.isSurrogate(c)) {
+            return 1;
+        }
+        return c < 0x800 ? 2 : 3;
+    }
+
+    /**
+     * @param json - JSON text written as is
+     * @param content - text escaped as the content of a JSON string
+     * @param more - JSON text written as is after the content
+     * @return the UTF-8 encoding
+     */
+    private static byte[] escape(String json, String content, String... more) {
+        Buffer buffer = new Buffer().writeUtf8(json);
+        try {
+            new JsonString(buffer).append(content);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String text : more) {
+            buffer.writeUtf8(text);
+        }
+        return buffer.readByteArray();
+    }
+
+    private static byte[] escape(String content) {
+        return escape("", content);
+    }
+
+    /**
+     * Writes the text appended to it as the UTF-8 content of a JSON string, escaping '"', '\' and control characters
+     * the way Jackson does. Runs of text that need no escaping go to the sink's UTF-8 encoder directly.
+     */
+    static class JsonString implements Appendable {
+        private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+        private final BufferedSink sink;
+
+        JsonString(BufferedSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            byte[] escaped = JSON_FRAGMENTS.get(csq);
+            if (escaped != null) {
+                sink.write(escaped);
+                return this;
+            }
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            String text = csq.toString();
+            int run = start;
+            for (int n = start; n < end; n++) {
+                char c = text.charAt(n);
+                if (c < 0x20 || c == '"' || c == '\\') {
+                    sink.writeUtf8(text, run, n);
+                    append(c);
+                    run = n + 1;
+                }
+            }
+            sink.writeUtf8(text, run, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            switch (c) {
+                case '"':
+                case '\\':
+                    sink.writeByte('\\').writeByte(c);
+                    break;
+                case '\n':
+                    sink.writeByte('\\').writeByte('n');
+                    break;
+                case '\r':
+                    sink.writeByte('\\').writeByte('r');
+                    break;
+                case '\t':
+                    sink.writeByte('\\').writeByte('t');
+                    break;
+                case '\b':
+                    sink.writeByte('\\').writeByte('b');
+                    break;
+                case '\f':
+                    sink.writeByte('\\').writeByte('f');
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sink.writeUtf8("\\u00").writeByte(HEX[c >> 4]).writeByte(HEX[c & 0xf]);
+                    } else {
+                        sink.writeUtf8CodePoint(Character.isSurrogate(c) ? '?' : c);
+                    }
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package jakarta;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.kohsuke.github.GitHub;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Throughput and tail latency of complete reviews, from fetching the PR to updating the checklist comment, against
+ * {@link MockGitHubServer} serving the recorded fixtures. Needs neither a token nor network access. The HTTP and link
+ * check caches start empty in a temporary review.cacheDir.
+ *
+ * Arguments: [reviews (200)] [concurrency (8)] [latency ms (20)] [jitter ms (30)] [page size (30)]
+ */
+public class EndToEndBenchmark {
+    public static void main(String[] args) throws Exception {
+        int reviews = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        // Before ReviewPipeline reads it
+        System.setProperty("review.cacheDir", Files.createTempDirectory("review-cache").toString());
+
+        try (MockGitHubServer server = new MockGitHubServer(Path.of("src/test/resources/mock-github"))) {
+            server.latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+            server.jitterMillis = args.length > 3 ? Long.parseLong(args[3]) : 30;
+            server.pageSize = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+            server.start();
+            System.out.printf("%d reviews of PR#1, concurrency %d, latency %d+%dms, page size %d\n", reviews, concurrency,
+                              server.latencyMillis, server.jitterMillis, server.pageSize);
+
+            OkHttpClient client = GitHubClients.httpClient(ReviewPipeline.CACHE_DIR.resolve("http"),
+                                                           GitHubClients.DEFAULT_CACHE_SIZE, concurrency);
+            GitHub github = GitHubClients.build(server.url(), "token", client);
+            long[] latencies = new long[reviews];
+            long elapsed;
+            // The review logs every step, keep the output to the results
+            PrintStream out = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try (ReviewPipeline pipeline = new ReviewPipeline(github, github.getRepository(PRTests.REPOSITORY),
+                                                              new GitHubRest(client, server.url(), "token"))) {
+                long start = System.nanoTime();
+                List<Future<?>> results = new ArrayList<>();
+                for (int n = 0; n < reviews; n++) {
+                    int review = n;
+                    results.add(executor.submit(() -> {
+                        long reviewStart = System.nanoTime();
+                        pipeline.review(1);
+                        latencies[review] = System.nanoTime() - reviewStart;
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+                elapsed = System.nanoTime() - start;
+            } finally {
+                executor.shutdownNow();
+                System.setOut(out);
+            }
+
+            Arrays.sort(latencies);
+            System.out.printf("throughput: %.1f reviews/s\n", reviews / (elapsed / 1e9));
+            System.out.printf("latency ms: p50 %.1f, p90 %.1f, p99 %.1f, max %.1f\n", percentile(latencies, 50),
+                              percentile(latencies, 90), percentile(latencies, 99), latencies[reviews - 1] / 1e6);
+            System.out.println(server.summary());
+        }
+        System.exit(0);
+    }
+
+    static double percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1e6;
+    }
+}
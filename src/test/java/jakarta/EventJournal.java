@@ -0,0 +1,277 @@
+package jakarta;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of the events accepted by {@link WebhookServer}, so a restart does not lose events that were
+ * acknowledged to GitHub but not yet reviewed. Records are appended to memory-mapped segment files, which makes an
+ * append a copy into the page cache: it survives the JVM dying right after, and reaches the disk when the OS writes
+ * the page back, or on every append with review.journalSync=true.
+ *
+ * A record is its length, the CRC32C of its bytes and the bytes. Offsets count bytes across segments, and a segment
+ * file is named after the offset of its first record. On opening, the last segment is scanned up to the first record
+ * that is missing or fails its CRC, a write torn by a crash, and appending resumes there. Each {@link Consumer} keeps
+ * the offset up to which it has processed the journal in a file of its own; segments that every consumer is past are
+ * deleted.
+ */
+class EventJournal implements AutoCloseable {
+    /** Length and CRC of a record */
+    static final int HEADER = 8;
+    static final String SUFFIX = ".journal";
+    /** Default size of a segment file */
+    static final int SEGMENT_SIZE = 64 << 20;
+
+    final Path dir;
+    final int segmentSize;
+    final boolean sync;
+    /** Segments by the offset of their first record */
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final CRC32C crc = new CRC32C();
+    private Segment head;
+    /** Offset of the next record */
+    private long end;
+
+    /**
+     * @param dir - directory of the segment and consumer offset files
+     * @param segmentSize - size of a segment file in bytes, the limit of a record's size
+     * @param sync - true to force every append to the disk
+     */
+    EventJournal(Path dir, int segmentSize, boolean sync) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+    }
+
+    /**
+     * A mapped segment file
+     */
+    static class Segment {
+        final long base;
+        final Path file;
+        final MappedByteBuffer buffer;
+
+        Segment(long base, Path file, MappedByteBuffer buffer) {
+            this.base = base;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Map the existing segments and find the end of the journal
+     * @return this journal
+     * @throws IOException - if the directory or a segment cannot be opened
+     */
+    EventJournal open() throws IOException {
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(SUFFIX))::iterator) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                segments.put(base, map(base, file, Math.max(Files.size(file), segmentSize)));
+            }
+        }
+        if (segments.isEmpty()) {
+            head = newSegment(0);
+            return this;
+        }
+        head = segments.lastEntry().getValue();
+        int position = 0;
+        for (int length = recordLength(head, position); length >= 0; length = recordLength(head, position)) {
+            position += HEADER + length;
+        }
+        if (position + HEADER <= head.buffer.capacity()) {
+            // Clear a torn record, so it cannot be mistaken for the end of a shorter one appended over it
+            head.buffer.putLong(position, 0);
+        }
+        end = head.base + position;
+        return this;
+    }
+
+    /**
+     * @return the offset the next record will be appended at
+     */
+    synchronized long end() {
+        return end;
+    }
+
+    /**
+     * Append a record
+     * @param record - the bytes of the record
+     * @return the offset of the record
+     * @throws IOException - if the record does not fit in a segment or a new segment cannot be created
+     */
+    synchronized long append(byte[] record) throws IOException {
+        if (HEADER + record.length > segmentSize) {
+            throw new IOException("Journal record of " + record.length + " bytes exceeds the segment size of "
+                                  + segmentSize);
+        }
+        int position = (int) (end - head.base);
+        if (position + HEADER + record.length > head.buffer.capacity()) {
+            head = newSegment(end);
+            position = 0;
+        }
+        crc.reset();
+        crc.update(record, 0, record.length);
+        MappedByteBuffer buffer = head.buffer;
+        buffer.put(position + HEADER, record);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // The length goes last, a record is only found once it is complete
+        buffer.putInt(position, record.length);
+        if (sync) {
+            buffer.force(position, HEADER + record.length);
+        }
+        long offset = end;
+        end += HEADER + record.length;
+        return offset;
+    }
+
+    /**
+     * Pass the records from an offset to the end of the journal to a handler
+     * @param from - offset of the first record, as kept by a {@link Consumer}
+     * @param handler - receives each record
+     * @return the number of records
+     * @throws IOException - if the handler fails
+     */
+    synchronized int replay(long from, RecordHandler handler) throws IOException {
+        int count = 0;
+        long offset = Math.max(from, segments.firstKey());
+        while (offset < end) {
+            Segment segment = segments.floorEntry(offset).getValue();
+            int position = (int) (offset - segment.base);
+            int length = recordLength(segment, position);
+            if (length < 0) {
+                throw new IOException("Corrupt journal record at offset " + offset);
+            }
+            byte[] record = new byte[length];
+            segment.buffer.get(position + HEADER, record);
+            handler.record(offset, record);
+            count++;
+            offset += HEADER + length;
+        }
+        return count;
+    }
+
+    /**
+     * @param name - name of the consumer
+     * @return the consumer, at the offset it committed last or at the start of the journal
+     * @throws IOException - if its offset file cannot be mapped
+     */
+    synchronized Consumer consumer(String name) throws IOException {
+        Path file = dir.resolve(name + ".offset");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            Consumer consumer = new Consumer(channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES));
+            consumers.add(consumer);
+            return consumer;
+        }
+    }
+
+    /**
+     * The offset up to which a reader of the journal has processed it
+     */
+    class Consumer {
+        private final MappedByteBuffer offset;
+
+        private Consumer(MappedByteBuffer offset) {
+            this.offset = offset;
+        }
+
+        /**
+         * @return the offset of the first record not yet processed
+         */
+        long offset() {
+            return offset.getLong(0);
+        }
+
+        /**
+         * Record that everything before an offset has been processed, and delete the segments no consumer needs
+         * @param processed - offset of the first record not yet processed
+         * @throws IOException - if a segment cannot be deleted
+         */
+        void commit(long processed) throws IOException {
+            synchronized (EventJournal.this) {
+                offset.putLong(0, processed);
+                if (sync) {
+                    offset.force();
+                }
+                release();
+            }
+        }
+    }
+
+    /**
+     * Delete the segments before the one holding the oldest offset of the consumers. The mapping of a deleted
+     * segment goes away when its buffer is collected.
+     */
+    private void release() throws IOException {
+        long oldest = end;
+        for (Consumer consumer : consumers) {
+            oldest = Math.min(oldest, consumer.offset());
+        }
+        Map.Entry<Long, Segment> first = segments.firstEntry();
+        while (first.getValue() != head && segments.higherKey(first.getKey()) <= oldest) {
+            segments.pollFirstEntry();
+            Files.deleteIfExists(first.getValue().file);
+            first = segments.firstEntry();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * @return the length of the record at a position, or -1 if there is none or it fails its CRC
+     */
+    private int recordLength(Segment segment, int position) {
+        MappedByteBuffer buffer = segment.buffer;
+        if (position + HEADER > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER + length > buffer.capacity()) {
+            return -1;
+        }
+        byte[] record = new byte[length];
+        buffer.get(position + HEADER, record);
+        crc.reset();
+        crc.update(record, 0, length);
+        return (int) crc.getValue() == buffer.getInt(position + 4) ? length : -1;
+    }
+
+    private Segment newSegment(long base) throws IOException {
+        Segment segment = map(base, dir.resolve(String.format("%020d", base) + SUFFIX), segmentSize);
+        segments.put(base, segment);
+        return segment;
+    }
+
+    private static Segment map(long base, Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            return new Segment(base, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    /**
+     * Receives the records of a replay
+     */
+    interface RecordHandler {
+        void record(long offset, byte[] record) throws IOException;
+    }
+}
@@ -0,0 +1,95 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Compare review throughput of the platform and virtual thread executors from {@link ReviewExecutors}. Each simulated
+ * review makes the same sequence of blocking calls as {@link ReviewPipeline#review(int)} (PR, files, comments, two URL
+ * probes and the comment update) against a local mock GitHub server that answers after a fixed latency.
+ *
+ * Arguments: [reviews (2000)] [latency ms (50)] [platform pool size (50)]. The virtual thread run needs Java 21.
+ */
+public class ExecutorBenchmark {
+    static final String[] CALLS = {"/pulls/1", "/pulls/1/files", "/issues/1/comments", "/staging", "/tck.zip",
+                                   "/issues/comments/1"};
+
+    public static void main(String[] args) throws Exception {
+        int reviews = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int latency = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        System.setProperty("http.maxConnections", "1000");
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        byte[] response = "{\"number\":1}".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        String base = "http://localhost:" + server.getAddress().getPort();
+        System.out.printf("Mock server at %s, reviews: %d, calls/review: %d, latency: %d ms\n", base, reviews,
+                          CALLS.length, latency);
+
+        try {
+            // Warm up the JIT and the connection pool before measuring
+            run("warmup", Executors.newFixedThreadPool(poolSize), base, Math.min(reviews, 200));
+            run("platform(" + poolSize + ")", Executors.newFixedThreadPool(poolSize), base, reviews);
+            System.setProperty("review.threads", "virtual");
+            if (ReviewExecutors.useVirtualThreads()) {
+                run("virtual", ReviewExecutors.newReviewExecutor(poolSize), base, reviews);
+            } else {
+                System.out.println("virtual: skipped, virtual threads need Java 21");
+            }
+        } finally {
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdownNow();
+        }
+    }
+
+    static void run(String name, ExecutorService executor, String base, int reviews) throws Exception {
+        long start = System.nanoTime();
+        List<Future<?>> results = new ArrayList<>(reviews);
+        for (int n = 0; n < reviews; n++) {
+            results.add(executor.submit(() -> {
+                for (String call : CALLS) {
+                    get(base + call);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdownNow();
+        System.out.printf("%-14s %6d reviews in %7.2f s = %8.1f reviews/s\n", name, reviews, seconds, reviews / seconds);
+    }
+
+    static void get(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            in.readAllBytes();
+        }
+    }
+}
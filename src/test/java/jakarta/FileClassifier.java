@@ -0,0 +1,98 @@
+package jakarta;
+
+/**
+ * Classifies the path of a PR file as javadoc, spec document or other file, with the same outcome as the rules it
+ * replaces:
+ * <ul>
+ *     <li>javadoc: {@code path.indexOf("apidocs") > 0}</li>
+ *     <li>spec: <code>path.matches(".*&#47;[0-9]+/.*")</code>, a version directory somewhere in the path</li>
+ *     <li>other: anything else</li>
+ * </ul>
+ * The spec rule is compiled once into the transition table of a path-segment automaton that looks for a segment of
+ * digits between two slashes in one left-to-right pass, without the regex compilation and backtracking of
+ * String.matches. The javadoc keyword stays a String.indexOf, a vectorized intrinsic that no per-character automaton
+ * beats on the long apidocs paths that make up most of a javadoc PR. A spec path is further told apart by its .pdf or
+ * .html suffix. As with the regex, '.' does not match line terminators, so a path holding one is never a spec path.
+ */
+final class FileClassifier {
+    static final int OTHER = 0;
+    static final int SPEC = 1;
+    static final int SPEC_PDF = 2;
+    static final int SPEC_HTML = 3;
+    static final int JAVADOC = 4;
+
+    static final String KEYWORD = "apidocs";
+
+    // Character classes
+    private static final int ANY = 0;
+    private static final int DIGIT = 1;
+    private static final int SLASH = 2;
+    /** A line terminator, which '.' of the spec regex does not match */
+    private static final int TERMINATOR = 3;
+    private static final int CLASS_BITS = 2;
+    private static final byte[] ASCII_CLASS = new byte[128];
+
+    // Automaton states
+    private static final int SEGMENT = 0;
+    private static final int AFTER_SLASH = 1;
+    private static final int IN_DIGITS = 2;
+    private static final int VERSION_SEEN = 3;
+    private static final int DEAD = 4;
+
+    /** Next state by state << CLASS_BITS | character class */
+    private static final byte[] NEXT = new byte[(DEAD + 1) << CLASS_BITS];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            ASCII_CLASS[c] = DIGIT;
+        }
+        ASCII_CLASS['/'] = SLASH;
+        ASCII_CLASS['\n'] = TERMINATOR;
+        ASCII_CLASS['\r'] = TERMINATOR;
+        for (int state = SEGMENT; state <= DEAD; state++) {
+            for (int charClass = ANY; charClass <= TERMINATOR; charClass++) {
+                int next;
+                if (state == DEAD || charClass == TERMINATOR) {
+                    next = DEAD;
+                } else if (state == VERSION_SEEN) {
+                    next = VERSION_SEEN;
+                } else if (charClass == SLASH) {
+                    next = state == IN_DIGITS ? VERSION_SEEN : AFTER_SLASH;
+                } else if (charClass == DIGIT && state != SEGMENT) {
+                    next = IN_DIGITS;
+                } else {
+                    next = SEGMENT;
+                }
+                NEXT[state << CLASS_BITS | charClass] = (byte) next;
+            }
+        }
+    }
+
+    private FileClassifier() {}
+
+    /**
+     * @param path - path of a PR file
+     * @return {@link #JAVADOC}, {@link #SPEC}, {@link #SPEC_PDF}, {@link #SPEC_HTML} or {@link #OTHER}
+     */
+    static int classify(String path) {
+        if (path.indexOf(KEYWORD) > 0) {
+            return JAVADOC;
+        }
+        int state = SEGMENT;
+        int length = path.length();
+        for (int n = 0; n < length; n++) {
+            char c = path.charAt(n);
+            int charClass = c < 128 ? ASCII_CLASS[c]
+                : c == '\u0085' || c == '\u2028' || c == '\u2029' ? TERMINATOR : ANY;
+            state = NEXT[state << CLASS_BITS | charClass];
+        }
+        if (state != VERSION_SEEN) {
+            return OTHER;
+        } else if (path.endsWith(".pdf")) {
+            return SPEC_PDF;
+        } else if (path.endsWith(".html")) {
+            return SPEC_HTML;
+        }
+        return SPEC;
+    }
+}
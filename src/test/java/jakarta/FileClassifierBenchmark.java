@@ -0,0 +1,132 @@
+package jakarta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Time and allocation per PR of classifying its files with {@link FileClassifier}, against the indexOf and
+ * String.matches rules it replaced. The PRs have 15,000 files: the spec PDF and HTML, images, a few stray files and
+ * either deep apidocs paths of the generated javadoc or the pages of a multi-page HTML spec. main runs with the GC profiler and takes the
+ * usual JMH command line options. With the bench profile the same measurement runs as
+ *
+ * mvn -Pbench test -Djmh.args="FileClassifierBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileClassifierBenchmark {
+    static final String[] PACKAGES = {"jakarta/ws/rs", "jakarta/ws/rs/client", "jakarta/ws/rs/container",
+        "jakarta/ws/rs/core", "jakarta/ws/rs/ext", "jakarta/ws/rs/sse"};
+
+    @Param({"15000"})
+    int fileCount;
+
+    /** apidocs for a javadoc release PR, site for a spec PR with a multi-page HTML spec and its images */
+    @Param({"apidocs", "site"})
+    String pr;
+
+    List<String> files;
+
+    @Setup
+    public void setup() {
+        files = files(fileCount, pr.equals("apidocs"));
+    }
+
+    /**
+     * @param count - number of files
+     * @param javadoc - true for javadoc files, false for spec pages
+     * @return the files of a release PR
+     */
+    static List<String> files(int count, boolean javadoc) {
+        ArrayList<String> files = new ArrayList<>(count);
+        files.add("restful-ws/4/jakarta-restful-ws-spec-4.pdf");
+        files.add("restful-ws/4/jakarta-restful-ws-spec-4.html");
+        files.add("restful-ws/4/_index.md");
+        files.add("restful-ws/_index.md");
+        for (int n = files.size(); n < count; n++) {
+            String pkg = PACKAGES[n % PACKAGES.length];
+            if (n % 500 == 0) {
+                files.add("restful-ws/4/images/figure-" + n + ".png");
+            } else if (n % 1000 == 1) {
+                files.add("restful-ws/jakarta_ee_logo_schooner_color_stacked_default-" + n + ".png");
+            } else if (!javadoc) {
+                files.add("restful-ws/4/spec/chapter-" + n % 20 + "/section-" + n / 20 % 50 + "/page-" + n + ".html");
+            } else if (n % 3 == 0) {
+                files.add("restful-ws/4/apidocs/jakarta.ws.rs/" + pkg + "/class-use/Class" + n + ".html");
+            } else {
+                files.add("restful-ws/4/apidocs/jakarta.ws.rs/" + pkg + "/Class" + n + ".html");
+            }
+        }
+        return files;
+    }
+
+    @Benchmark
+    public SpecFiles compiled() {
+        return SpecFiles.classify(files);
+    }
+
+    @Benchmark
+    public SpecFiles indexOfAndMatches() {
+        return indexOfAndMatches(files);
+    }
+
+    /**
+     * The classification before {@link FileClassifier}
+     */
+    static SpecFiles indexOfAndMatches(List<String> files) {
+        SpecFiles classified = new SpecFiles(true);
+        for (String f : files) {
+            if (f.indexOf("apidocs") > 0) {
+                classified.javadocFiles.add(f);
+            } else if (f.matches(".*/[0-9]+/.*")) {
+                classified.specFiles.add(f);
+                if(f.endsWith(".pdf")) {
+                    int slash = f.lastIndexOf('/');
+                    classified.specPdfPath = f.substring(slash+1);
+                } else if(f.endsWith(".html")) {
+                    int slash = f.lastIndexOf('/');
+                    classified.specHtmlPath = f.substring(slash+1);
+                }
+            } else {
+                classified.otherFiles.add(f);
+            }
+        }
+        if (classified.specFiles.size() > 0) {
+            String[] s = classified.specFiles.get(0).split("/");
+            classified.specName = s[0];
+            classified.specVersion = s[1];
+        }
+        return classified;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                       .parent(new CommandLineOptions(args))
+                       .include(FileClassifierBenchmark.class.getSimpleName())
+                       .addProfiler(GCProfiler.class)
+                       .build())
+            .run();
+    }
+}
@@ -0,0 +1,60 @@
+package jakarta;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.extras.okhttp3.OkHttpConnector;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * Builds the {@link GitHub} client used by the review pipeline. Requests go through an {@link OkHttpClient} with a
+ * size-bounded on-disk response cache. Every cached response is revalidated with If-None-Match/If-Modified-Since,
+ * and GitHub does not count the resulting 304 responses against the rate limit, so re-reviewing an unchanged PR
+ * costs almost no rate limit points. The cache directory can be saved and restored between GitHub Actions runs.
+ */
+final class GitHubClients {
+    /** Default maximum size of the HTTP response cache, 50MB */
+    static final long DEFAULT_CACHE_SIZE = 50L * 1024 * 1024;
+
+    private GitHubClients() {}
+
+    /**
+     * Build the HTTP client shared by the {@link GitHub} client and {@link GitHubRest}
+     * @param cacheDir - directory of the HTTP response cache, created if missing
+     * @param maxCacheBytes - size the cache is trimmed to, evicting least recently used responses
+     * @param maxIdleConnections - connections kept alive for reuse, typically the review concurrency
+     * @return the HTTP client
+     */
+    static OkHttpClient httpClient(Path cacheDir, long maxCacheBytes, int maxIdleConnections) {
+        return new OkHttpClient.Builder()
+            .cache(new Cache(cacheDir.toFile(), maxCacheBytes))
+            .connectionPool(new ConnectionPool(maxIdleConnections, 5, TimeUnit.MINUTES))
+            .build();
+    }
+
+    /**
+     * Build a client on top of the given HTTP client. A client with interceptors is plugged in through
+     * {@link OkHttpCallConnector}, as github-api's OkHttpConnector drops them.
+     * @param endpoint - API url, or null for https://api.github.com
+     * @param token - OAUTH token
+     * @param client - HTTP client from {@link #httpClient(Path, long, int)}
+     * @return the client
+     * @throws IOException - on failure
+     */
+    static GitHub build(String endpoint, String token, OkHttpClient client) throws IOException {
+        // A max age of 0 makes every cached response a conditional request rather than a stale read
+        GitHubBuilder builder = new GitHubBuilder()
+            .withOAuthToken(token)
+            .withConnector(client.interceptors().isEmpty() ? new OkHttpConnector(client, 0) : new OkHttpCallConnector(client, 0));
+        if (endpoint != null) {
+            builder.withEndpoint(endpoint);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,175 @@
+package jakarta;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import okhttp3.CacheControl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Plain REST calls for the endpoints the github-api binding does not expose, such as a single issue comment by id
+ * or a specific page of a listing, and GraphQL queries. Requests share the {@link OkHttpClient}, and so the connection
+ * pool, response cache and interceptors, of the {@link org.kohsuke.github.GitHub} client.
+ */
+class GitHubRest {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+    static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    /** Revalidate cached responses instead of serving them for their max-age */
+    static final CacheControl REVALIDATE = new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build();
+
+    final OkHttpClient client;
+    final String apiUrl;
+    final String graphqlUrl;
+    final String token;
+
+    /**
+     * @param client - the HTTP client
+     * @param apiUrl - the REST API url, e.g. {@code GitHub#getApiUrl()}
+     * @param token - OAUTH token
+     */
+    GitHubRest(OkHttpClient client, String apiUrl, String token) {
+        this.client = client;
+        this.apiUrl = apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+        // GitHub Enterprise serves REST at /api/v3 and GraphQL at /api/graphql
+        this.graphqlUrl = (this.apiUrl.endsWith("/api/v3") ? this.apiUrl.substring(0, this.apiUrl.length() - 3)
+                           : this.apiUrl + "/") + "graphql";
+        this.token = token;
+    }
+
+    /**
+     * GET a resource
+     * @param path - path below the API url, e.g. /repos/owner/name/issues/comments/1
+     * @return the parsed response, or null if the resource does not exist
+     * @throws IOException - on failure
+     */
+    JsonNode get(String path) throws IOException {
+        Request request = request(path).cacheControl(REVALIDATE).get().build();
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 404) {
+                return null;
+            }
+            return parse(request, response);
+        }
+    }
+
+    /**
+     * GET a page of a listing
+     * @param path - path below the API url, with the per_page and page query parameters
+     * @param page - number of the page requested
+     * @return the page, or null if the listing does not exist
+     * @throws IOException - on failure
+     */
+    Page getPage(String path, int page) throws IOException {
+        Request request = request(path).cacheControl(REVALIDATE).get().build();
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 404) {
+                return null;
+            }
+            return new Page(parse(request, response), lastPage(response.header("Link"), page));
+        }
+    }
+
+    /**
+     * @param link - Link header of a listing page, or null
+     * @param page - number of the page
+     * @return the page number of its rel="last" link, or page if it has none, being the last page
+     */
+    static int lastPage(String link, int page) {
+        if (link == null) {
+            return page;
+        }
+        for (String part : link.split(",")) {
+            if (part.contains("rel=\"last\"")) {
+                int start = part.indexOf('<');
+                int end = part.indexOf('>', start);
+                for (String param : part.substring(start + 1, end).replaceFirst("^[^?]*\\?", "").split("&")) {
+                    if (param.startsWith("page=")) {
+                        return Integer.parseInt(param.substring("page=".length()));
+                    }
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * A page of a listing
+     */
+    static class Page {
+        /** The items of the page, a JSON array */
+        final JsonNode items;
+        /** Number of the last page of the listing */
+        final int lastPage;
+
+        Page(JsonNode items, int lastPage) {
+            this.items = items;
+            this.lastPage = lastPage;
+        }
+    }
+
+    /**
+     * PATCH a resource
+     * @param path - path below the API url
+     * @param body - the JSON request body
+     * @return the parsed response
+     * @throws IOException - on failure
+     */
+    JsonNode patch(String path, JsonNode body) throws IOException {
+        return patch(path, RequestBody.create(MAPPER.writeValueAsBytes(body), JSON));
+    }
+
+    /**
+     * PATCH a resource
+     * @param path - path below the API url
+     * @param body - the request body, e.g. a {@link ChecklistRequestBody} written as the request is sent
+     * @return the parsed response
+     * @throws IOException - on failure
+     */
+    JsonNode patch(String path, RequestBody body) throws IOException {
+        Request request = request(path).patch(body).build();
+        try (Response response = client.newCall(request).execute()) {
+            return parse(request, response);
+        }
+    }
+
+    /**
+     * POST a GraphQL query or mutation
+     * @param body - the JSON request body, with the query and its variables
+     * @return the parsed response, with its data and errors members
+     * @throws IOException - on failure
+     */
+    JsonNode graphql(JsonNode body) throws IOException {
+        Request request = new Request.Builder()
+            .url(graphqlUrl)
+            .header("Authorization", "bearer " + token)
+            .post(RequestBody.create(MAPPER.writeValueAsBytes(body), JSON))
+            .build();
+        try (Response response = client.newCall(request).execute()) {
+            return parse(request, response);
+        }
+    }
+
+    private Request.Builder request(String path) {
+        return new Request.Builder()
+            .url(apiUrl + path)
+            .header("Authorization", "token " + token)
+            .header("Accept", "application/vnd.github.v3+json");
+    }
+
+    private static JsonNode parse(Request request, Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (!response.isSuccessful()) {
+            throw new IOException(request.method() + " " + request.url() + " failed with HTTP " + response.code()
+                                  + ": " + (body == null ? "" : body.string()));
+        }
+        return body == null ? MAPPER.nullNode() : MAPPER.readTree(body.byteStream());
+    }
+}
@@ -0,0 +1,196 @@
+package jakarta;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Fetches {@link PullRequestData} through the GitHub GraphQL API. A single query returns the body, assignee and file
+ * paths of a PR together with the remembered checklist comment, costing one rate limit point instead of the dozens of
+ * REST calls and lazy user fetches of {@link RestPullRequestFetcher}. Only PRs with more than {@link #PAGE_SIZE} files,
+ * or without a known checklist comment, need follow-up queries, which page with GraphQL cursors. Queries go through
+ * {@link GitHubRest}, and so the HTTP client and interceptors of the REST calls.
+ */
+class GraphQLPullRequestFetcher implements PullRequestFetcher {
+    /** The GraphQL API maximum for first: and last: on a connection */
+    static final int PAGE_SIZE = 100;
+
+    static final String PR_QUERY = """
+        query PullRequest($owner: String!, $name: String!, $number: Int!, $commentId: ID = "", $hasComment: Boolean = false) {
+          repository(owner: $owner, name: $name) {
+            pullRequest(number: $number) {
+              number title body url changedFiles
+              assignees(first: 1) { nodes { login } }
+              files(first: 100) { pageInfo { hasNextPage endCursor } nodes { path } }
+            }
+          }
+          checklist: node(id: $commentId) @include(if: $hasComment) {
+            ... on IssueComment { id databaseId body author { login } }
+          }
+        }""";
+    static final String FILES_QUERY = """
+        query PullRequestFiles($owner: String!, $name: String!, $number: Int!, $cursor: String) {
+          repository(owner: $owner, name: $name) {
+            pullRequest(number: $number) {
+              files(first: 100, after: $cursor) { pageInfo { hasNextPage endCursor } nodes { path } }
+            }
+          }
+        }""";
+    static final String COMMENTS_QUERY = """
+        query PullRequestComments($owner: String!, $name: String!, $number: Int!, $cursor: String) {
+          repository(owner: $owner, name: $name) {
+            pullRequest(number: $number) {
+              comments(last: 100, before: $cursor) { pageInfo { hasPreviousPage startCursor } nodes { id databaseId body author { login } } }
+            }
+          }
+        }""";
+    static final String UPDATE_COMMENT_MUTATION = """
+        mutation UpdateIssueComment($id: ID!, $body: String!) {
+          updateIssueComment(input: {id: $id, body: $body}) { issueComment { id } }
+        }""";
+
+
+    final GitHubRest rest;
+    final String owner;
+    final String name;
+
+    /**
+     * @param rest - the REST calls of the GitHub instance, sharing its HTTP client
+     * @param repository - repository in the form of owner/repository-name
+     */
+    GraphQLPullRequestFetcher(GitHubRest rest, String repository) {
+        this.rest = rest;
+        int slash = repository.indexOf('/');
+        this.owner = repository.substring(0, slash);
+        this.name = repository.substring(slash + 1);
+    }
+
+    @Override
+    public PullRequestData fetch(int prNumber, ReviewState.Entry known) throws IOException {
+        ObjectNode variables = variables(prNumber, null);
+        if (known != null && known.commentNodeId != null) {
+            variables.put("commentId", known.commentNodeId);
+            variables.put("hasComment", true);
+        }
+        JsonNode result = post(PR_QUERY, variables);
+        JsonNode pr = pullRequest(result);
+        PullRequestData data = new PullRequestData();
+        data.number = pr.path("number").asInt();
+        data.title = pr.path("title").asText();
+        data.body = pr.path("body").asText();
+        data.url = pr.path("url").asText();
+        data.changedFiles = pr.path("changedFiles").asInt();
+        JsonNode assignees = pr.path("assignees").path("nodes");
+        data.assignee = assignees.size() > 0 ? assignees.get(0).path("login").asText() : null;
+
+        JsonNode files = pr.path("files");
+        addFiles(data, files);
+        while (files.path("pageInfo").path("hasNextPage").asBoolean()) {
+            String cursor = files.path("pageInfo").path("endCursor").asText();
+            files = pullRequest(post(FILES_QUERY, variables(prNumber, cursor))).path("files");
+            addFiles(data, files);
+        }
+        // checklist is null when the remembered comment was deleted
+        JsonNode node = result.path("checklist");
+        GraphQLComment checklist = node.hasNonNull("id") ? comment(node) : null;
+        if (checklist == null || !checklist.isChecklistOf(data.assignee)) {
+            checklist = findChecklist(prNumber, data.assignee);
+        }
+        data.checklist = checklist;
+        return data;
+    }
+
+    /**
+     * Page through the comments of the PR from the end, newest comment first
+     * @return the newest checklist comment of the assignee, or null
+     */
+    private GraphQLComment findChecklist(int prNumber, String assignee) throws IOException {
+        if (assignee == null) {
+            return null;
+        }
+        String cursor = null;
+        do {
+            JsonNode comments = pullRequest(post(COMMENTS_QUERY, variables(prNumber, cursor))).path("comments");
+            JsonNode nodes = comments.path("nodes");
+            for (int n = nodes.size() - 1; n >= 0; n--) {
+                GraphQLComment comment = comment(nodes.get(n));
+                if (comment.isChecklistOf(assignee)) {
+                    return comment;
+                }
+            }
+            cursor = comments.path("pageInfo").path("hasPreviousPage").asBoolean()
+                ? comments.path("pageInfo").path("startCursor").asText() : null;
+        } while (cursor != null);
+        return null;
+    }
+
+    private void addFiles(PullRequestData data, JsonNode files) {
+        for (JsonNode file : files.path("nodes")) {
+            data.files.add(file.path("path").asText());
+        }
+    }
+
+    private GraphQLComment comment(JsonNode comment) {
+        // author is null for comments of deleted accounts
+        String author = comment.path("author").path("login").asText(null);
+        return new GraphQLComment(comment.path("databaseId").asLong(), comment.path("id").asText(), author,
+                                  comment.path("body").asText());
+    }
+
+    private ObjectNode variables(int prNumber, String cursor) {
+        ObjectNode variables = GitHubRest.MAPPER.createObjectNode();
+        variables.put("owner", owner);
+        variables.put("name", name);
+        variables.put("number", prNumber);
+        if (cursor != null) {
+            variables.put("cursor", cursor);
+        }
+        return variables;
+    }
+
+    private static JsonNode pullRequest(JsonNode data) throws IOException {
+        JsonNode pr = data.path("repository").path("pullRequest");
+        if (pr.isMissingNode() || pr.isNull()) {
+            throw new IOException("No pull request in GraphQL response: " + data);
+        }
+        return pr;
+    }
+
+    /**
+     * Run a GraphQL query or mutation
+     * @return the data member of the response
+     * @throws IOException - on a transport failure or if the response carries errors other than an unresolvable
+     * checklist node id
+     */
+    JsonNode post(String query, ObjectNode variables) throws IOException {
+        ObjectNode request = GitHubRest.MAPPER.createObjectNode();
+        request.put("query", query);
+        request.set("variables", variables);
+        JsonNode result = rest.graphql(request);
+        for (JsonNode error : result.path("errors")) {
+            // A deleted checklist comment only means the comments have to be scanned
+            if (!error.path("path").path(0).asText().equals("checklist")) {
+                throw new IOException("GraphQL request failed: " + result.get("errors"));
+            }
+        }
+        return result.path("data");
+    }
+
+    /**
+     * A comment fetched through GraphQL, updated with the updateIssueComment mutation
+     */
+    class GraphQLComment extends PullRequestData.Comment {
+        GraphQLComment(long id, String nodeId, String author, String body) {
+            super(id, nodeId, author, body);
+        }
+
+        @Override
+        void update(ReviewResults review) throws IOException {
+            ObjectNode variables = GitHubRest.MAPPER.createObjectNode();
+            variables.put("id", nodeId);
+            variables.put("body", ChecklistComment.body(ReviewRenderer.render(review)));
+            post(UPDATE_COMMENT_MUTATION, variables);
+        }
+    }
+}
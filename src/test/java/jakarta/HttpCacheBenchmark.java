@@ -0,0 +1,145 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+
+import okhttp3.OkHttpClient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Count the rate limit points a review and an unchanged re-review consume with the default connector and with the
+ * caching client from {@link GitHubClients}. A local server stands in for the REST API. Like GitHub it serves an
+ * ETag with every response, answers a matching If-None-Match with 304, and only charges a point for other responses.
+ *
+ * Arguments: [changed files in the PR (250)] [comments on the PR (60)]
+ */
+public class HttpCacheBenchmark {
+    static final String REPOSITORY = "jakartaredhat/specifications";
+    static final int PAGE_SIZE = 30;
+
+    static final AtomicInteger points = new AtomicInteger();
+    static int fileCount;
+    static int commentCount;
+
+    public static void main(String[] args) throws Exception {
+        fileCount = args.length > 0 ? Integer.parseInt(args[0]) : 250;
+        commentCount = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 50);
+        server.createContext("/", HttpCacheBenchmark::handle);
+        server.start();
+        String endpoint = "http://localhost:" + server.getAddress().getPort();
+        System.out.printf("PR with %d files and %d comments, page size %d\n", fileCount, commentCount, PAGE_SIZE);
+
+        try {
+            GitHub uncached = new GitHubBuilder().withEndpoint(endpoint).withOAuthToken("token").build();
+            measure("default connector", uncached, new GitHubRest(new OkHttpClient(), endpoint, "token"));
+            Path cacheDir = Files.createTempDirectory("http-cache");
+            OkHttpClient client = GitHubClients.httpClient(cacheDir, GitHubClients.DEFAULT_CACHE_SIZE, 5);
+            GitHub cached = GitHubClients.build(endpoint, "token", client);
+            measure("caching connector", cached, new GitHubRest(client, endpoint, "token"));
+        } finally {
+            server.stop(0);
+        }
+        System.exit(0);
+    }
+
+    static void measure(String name, GitHub github, GitHubRest rest) throws IOException {
+        GHRepository repo = github.getRepository(REPOSITORY);
+        RestPullRequestFetcher fetcher = new RestPullRequestFetcher(github, repo, rest, ReviewExecutors.newIoExecutor());
+        // The fetcher prints every file, keep the output to the results
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        int review;
+        int reReview;
+        try {
+            points.set(0);
+            fetcher.fetch(1, null);
+            review = points.getAndSet(0);
+            fetcher.fetch(1, null);
+            reReview = points.get();
+        } finally {
+            System.setOut(out);
+        }
+        System.out.printf("%-18s review: %3d points, unchanged re-review: %3d points\n", name, review, reReview);
+    }
+
+    static void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getQuery();
+        int page = 1;
+        int pageSize = PAGE_SIZE;
+        for (String param : query == null ? new String[0] : query.split("&")) {
+            if (param.startsWith("page=")) {
+                page = Integer.parseInt(param.substring("page=".length()));
+            } else if (param.startsWith("per_page=")) {
+                pageSize = Integer.parseInt(param.substring("per_page=".length()));
+            }
+        }
+        String prefix = "/repos/" + REPOSITORY;
+        String base = "http://localhost:" + exchange.getLocalAddress().getPort();
+        String link = null;
+        StringBuilder json = new StringBuilder();
+        if (path.equals(prefix)) {
+            json.append("{\"id\":1,\"name\":\"specifications\",\"full_name\":\"").append(REPOSITORY)
+                .append("\",\"owner\":{\"login\":\"jakartaredhat\"}}");
+        } else if (path.equals(prefix + "/pulls/1")) {
+            json.append("{\"number\":1,\"title\":\"Spec PR\",\"body\":\"- [ ] item\",\"issue_url\":\"")
+                .append(base).append(prefix).append("/issues/1\",\"changed_files\":").append(fileCount)
+                .append(",\"comments\":").append(commentCount).append(",\"assignee\":{\"login\":\"reviewer\"}}");
+        } else if (path.equals(prefix + "/pulls/1/files") || path.equals(prefix + "/issues/1/comments")) {
+            boolean files = path.endsWith("/files");
+            int total = files ? fileCount : commentCount;
+            int last = Math.max(1, (total + pageSize - 1) / pageSize);
+            json.append('[');
+            for (int n = (page - 1) * pageSize; n < Math.min(total, page * pageSize); n++) {
+                json.append(n % pageSize == 0 ? "" : ",");
+                if (files) {
+                    json.append("{\"filename\":\"spec/10/apidocs/File").append(n).append(".html\"}");
+                } else {
+                    json.append("{\"id\":").append(n).append(",\"body\":\"comment\",\"user\":{\"login\":\"user\"}}");
+                }
+            }
+            json.append(']');
+            if (page < last) {
+                String pages = base + path + "?per_page=" + pageSize + "&page=";
+                link = "<" + pages + (page + 1) + ">; rel=\"next\", <" + pages + last + ">; rel=\"last\"";
+            }
+        } else {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        String etag = "\"" + Integer.toHexString(json.toString().hashCode()) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "private, max-age=60, s-maxage=60");
+        exchange.getResponseHeaders().set("Vary", "Accept, Authorization");
+        if (link != null) {
+            exchange.getResponseHeaders().set("Link", link);
+        }
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        points.incrementAndGet();
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package jakarta;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Sustained appends per second to the {@link EventJournal}, of the records {@link WebhookServer} journals for the
+ * pull_request deliveries of {@link WebhookBenchmark}. A consumer commits every append, as if the reviews kept up, so
+ * segments are created and deleted at the rate a burst would. Measured with the journal writing to the page cache and
+ * with every append forced to the disk. main runs with the GC profiler and takes the usual JMH command line options.
+ * With the bench profile the same measurement runs as
+ *
+ * mvn -Pbench test -Djmh.args="JournalBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+    /** Size of the PR body in KB */
+    @Param({"2", "256"})
+    int bodyKb;
+
+    /** true to force every append to the disk */
+    @Param({"false", "true"})
+    boolean sync;
+
+    byte[] record;
+    Path dir;
+    EventJournal journal;
+    EventJournal.Consumer consumer;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        byte[] payload = GitHubRest.MAPPER.writeValueAsBytes(WebhookBenchmark.payload(bodyKb));
+        WebhookPayload event = WebhookPayload.read(new ByteArrayInputStream(payload));
+        record = event.toRecord(event.pullRequest.number);
+        dir = Files.createTempDirectory("journal");
+        journal = new EventJournal(dir, EventJournal.SEGMENT_SIZE, sync).open();
+        consumer = journal.consumer("benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        long offset = journal.append(record);
+        consumer.commit(offset);
+        return offset;
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                       .parent(new CommandLineOptions(args))
+                       .include(JournalBenchmark.class.getSimpleName())
+                       .addProfiler(GCProfiler.class)
+                       .build())
+            .run();
+    }
+}
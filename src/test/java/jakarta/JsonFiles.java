@@ -0,0 +1,52 @@
+package jakarta;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * The JSON files the review keeps between runs, such as the {@link ReviewState} and the {@link LinkCheckCache}. A
+ * file is replaced atomically, so a run that dies while saving leaves the previous version in place.
+ */
+final class JsonFiles {
+    private JsonFiles() {}
+
+    /**
+     * Read the value saved by a previous run, if any. An unreadable file is ignored.
+     * @param file - the JSON file
+     * @param type - type of the saved value
+     * @param description - what the file holds, for the message about an unreadable file
+     * @return the saved value, or null if there is none or the file cannot be read
+     */
+    static <T> T load(Path file, TypeReference<T> type, String description) {
+        if (Files.isRegularFile(file)) {
+            try {
+                return GitHubRest.MAPPER.readValue(file.toFile(), type);
+            } catch (IOException e) {
+                System.out.printf("--- Ignoring unreadable %s %s: %s\n", description, file, e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write a value to a file, replacing it atomically
+     * @param file - the JSON file
+     * @param value - the value to save
+     * @throws IOException - on failure
+     */
+    static void save(Path file, Object value) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            GitHubRest.MAPPER.writeValue(tmp.toFile(), value);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
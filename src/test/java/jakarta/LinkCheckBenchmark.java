@@ -0,0 +1,145 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Measure the link check phase of a review against a local HTTP stand-in that injects slow, hanging, HEAD-rejecting
+ * and range-ignoring responses. Each scenario is the pair of staging and TCK URLs of one review, checked with
+ * {@link LinkChecker} and with the previous serial URLConnection.getContentLength() probes, which have no timeouts
+ * and are cut off by a watchdog here.
+ *
+ * Arguments: [iterations per scenario (20)] [request timeout ms (1000)] [overall deadline ms (3000)]
+ */
+public class LinkCheckBenchmark {
+    static final long WATCHDOG_MS = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        long requestTimeout = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        long overallTimeout = args.length > 2 ? Long.parseLong(args[2]) : 3000;
+
+        HttpServer server = startServer();
+        String base = "http://localhost:" + server.getAddress().getPort();
+        ExecutorService executor = ReviewExecutors.newIoExecutor();
+        LinkChecker checker = new LinkChecker(Duration.ofMillis(requestTimeout), Duration.ofMillis(overallTimeout),
+                                              executor, null);
+        String[][] scenarios = {
+            {"/ok", "/ok"},
+            {"/ok", "/slow"},
+            {"/nohead", "/norange"},
+            {"/ok", "/hang"},
+        };
+        System.out.printf("request timeout: %d ms, overall deadline: %d ms, iterations: %d\n", requestTimeout,
+                          overallTimeout, iterations);
+        System.out.printf("%-20s %12s %12s %14s\n", "scenario", "p50 ms", "max ms", "legacy ms");
+        for (String[] scenario : scenarios) {
+            List<String> urls = List.of(base + scenario[0], base + scenario[1]);
+            long[] latencies = new long[iterations];
+            for (int n = 0; n < iterations; n++) {
+                long start = System.nanoTime();
+                Map<String, CompletableFuture<LinkCheckResult>> results = checker.checkAll(urls);
+                results.values().forEach(CompletableFuture::join);
+                latencies[n] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%-20s %12d %12d %14s\n", scenario[0] + "+" + scenario[1], latencies[iterations / 2],
+                              latencies[iterations - 1], legacy(executor, urls));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Time the serial URLConnection probes the review used before LinkChecker
+     */
+    static String legacy(ExecutorService executor, List<String> urls) throws Exception {
+        long start = System.nanoTime();
+        Future<?> probes = executor.submit(() -> {
+            for (String url : urls) {
+                URI.create(url).toURL().openConnection().getContentLength();
+            }
+            return null;
+        });
+        try {
+            probes.get(WATCHDOG_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            probes.cancel(true);
+            return "hung > " + WATCHDOG_MS;
+        }
+        return Long.toString(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    static HttpServer startServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 100);
+        server.createContext("/ok", exchange -> respond(exchange, 200, 1000));
+        server.createContext("/slow", exchange -> {
+            sleep(2000);
+            respond(exchange, 200, 1000);
+        });
+        server.createContext("/hang", exchange -> {
+            sleep(Long.MAX_VALUE);
+        });
+        server.createContext("/nohead", exchange -> {
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                respond(exchange, 405, 0);
+            } else {
+                exchange.getResponseHeaders().set("Content-Range", "bytes 0-0/5000");
+                respond(exchange, 206, 1);
+            }
+        });
+        server.createContext("/norange", exchange -> {
+            // No length on HEAD and a 50MB body on GET regardless of Range
+            respond(exchange, 200, exchange.getRequestMethod().equals("HEAD") ? 0 : 50_000_000);
+        });
+        server.setExecutor(Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        return server;
+    }
+
+    static void respond(HttpExchange exchange, int status, long length) throws IOException {
+        if (exchange.getRequestMethod().equals("HEAD") || length == 0) {
+            if (length > 0) {
+                exchange.getResponseHeaders().set("Content-Length", Long.toString(length));
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, length);
+        byte[] chunk = new byte[64 * 1024];
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (long sent = 0; sent < length; sent += chunk.length) {
+                out.write(chunk, 0, (int) Math.min(chunk.length, length - sent));
+            }
+        } catch (IOException e) {
+            // the client closed the connection early
+        }
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
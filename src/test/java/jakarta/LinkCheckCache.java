@@ -0,0 +1,176 @@
+package jakarta;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import jakarta.LinkCheckResult.Status;
+
+/**
+ * On-disk cache of {@link LinkChecker} results keyed by normalized URL. Many PRs of a release wave point at the same
+ * staging repositories and TCK zips, so consecutive runs and the PRs of a batch run share probe results. Passing
+ * results live for the positive TTL and failures for the shorter negative TTL. An expired entry that carries an ETag
+ * or Last-Modified is revalidated with a conditional request instead of a fresh probe. Expired entries
+ * without either are dropped when the cache is saved.
+ */
+class LinkCheckCache {
+    /**
+     * A cached probe result, serialized as JSON
+     */
+    public static class Entry {
+        public String url;
+        public Status status;
+        public int httpStatus;
+        public long contentLength;
+        public String etag;
+        public String lastModified;
+        /** When the result was last probed or revalidated, epoch ms */
+        public volatile long checkedAt;
+
+        LinkCheckResult toResult(String requestedUrl) {
+            LinkCheckResult result = new LinkCheckResult(requestedUrl, status, httpStatus, contentLength, 0, null);
+            result.etag = etag;
+            result.lastModified = lastModified;
+            result.cached = true;
+            return result;
+        }
+
+        boolean revalidatable() {
+            return etag != null || lastModified != null;
+        }
+    }
+
+    final Path file;
+    final Duration ttl;
+    final Duration negativeTtl;
+    final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    final AtomicLong hits = new AtomicLong();
+    final AtomicLong revalidations = new AtomicLong();
+    final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param file - the JSON file the cache is loaded from and saved to
+     * @param ttl - how long a passing result is used without revalidation
+     * @param negativeTtl - how long a failed result is used without a new probe
+     */
+    LinkCheckCache(Path file, Duration ttl, Duration negativeTtl) {
+        this.file = file;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+    }
+
+    /**
+     * Load the entries saved by a previous run, if any. An unreadable cache file is ignored.
+     * @return this cache
+     */
+    LinkCheckCache load() {
+        Map<String, Entry> saved = JsonFiles.load(file, new TypeReference<Map<String, Entry>>() {}, "link check cache");
+        if (saved != null) {
+            entries.putAll(saved);
+        }
+        return this;
+    }
+
+    /**
+     * Drop the expired entries that cannot be revalidated, as they would only be probed again, and write the others to
+     * the cache file, replacing it atomically
+     * @throws IOException - on failure
+     */
+    void save() throws IOException {
+        entries.values().removeIf(entry -> !entry.revalidatable() && !isFresh(entry));
+        JsonFiles.save(file, entries);
+    }
+
+    /**
+     * @param url - the URL to look up
+     * @return the entry for the URL whether fresh or expired, or null
+     */
+    Entry get(String url) {
+        return entries.get(normalize(url));
+    }
+
+    /**
+     * @param entry - a cached entry
+     * @return true if the entry can be used without going to the network
+     */
+    boolean isFresh(Entry entry) {
+        Duration entryTtl = entry.status == Status.OK ? ttl : negativeTtl;
+        return System.currentTimeMillis() - entry.checkedAt < entryTtl.toMillis();
+    }
+
+    /**
+     * Record the result of a probe
+     * @param result - the probe result
+     */
+    void put(LinkCheckResult result) {
+        Entry entry = new Entry();
+        entry.url = result.url;
+        entry.status = result.status;
+        entry.httpStatus = result.httpStatus;
+        entry.contentLength = result.contentLength;
+        entry.etag = result.etag;
+        entry.lastModified = result.lastModified;
+        entry.checkedAt = System.currentTimeMillis();
+        entries.put(normalize(result.url), entry);
+    }
+
+    /**
+     * Record that a conditional request confirmed an entry is unchanged
+     * @param entry - the revalidated entry
+     */
+    void revalidated(Entry entry) {
+        entry.checkedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return hit, revalidation and miss counts with the hit rate, for the run summary
+     */
+    String summary() {
+        long total = hits.get() + revalidations.get() + misses.get();
+        double hitRate = total == 0 ? 0 : 100.0 * (hits.get() + revalidations.get()) / total;
+        return String.format("link cache: %d hits, %d revalidated, %d misses, hit rate %.1f%%", hits.get(),
+                             revalidations.get(), misses.get(), hitRate);
+    }
+
+    /**
+     * Normalize a URL for use as cache key: lower case scheme and host, no default port, no fragment
+     * @param url - the URL as written in the PR
+     * @return the cache key
+     */
+    static String normalize(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return url.trim();
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (port == 80 && scheme.equals("http") || port == 443 && scheme.equals("https")) {
+                port = -1;
+            }
+            StringBuilder key = new StringBuilder(url.length()).append(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                key.append(uri.getRawUserInfo()).append('@');
+            }
+            key.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                key.append(':').append(port);
+            }
+            key.append(uri.getRawPath() == null ? "" : uri.getRawPath());
+            if (uri.getRawQuery() != null) {
+                key.append('?').append(uri.getRawQuery());
+            }
+            return key.toString();
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package jakarta;
+
+/**
+ * Outcome of probing one URL of a checklist item
+ */
+class LinkCheckResult {
+    enum Status {
+        /** Reachable with a non-zero content length */
+        OK,
+        /** Reachable but the content length was zero or not reported */
+        EMPTY,
+        /** The server answered with an HTTP error status */
+        HTTP_ERROR,
+        /** No answer within the per-request or overall deadline */
+        TIMEOUT,
+        /** Malformed URL or a connection failure */
+        FAILED
+    }
+
+    final String url;
+    final Status status;
+    /** HTTP status code, or 0 if there was no response */
+    final int httpStatus;
+    /** Length of the resource in bytes, or -1 if unknown */
+    final long contentLength;
+    final long latencyMillis;
+    /** Failure detail for TIMEOUT and FAILED results */
+    final String error;
+    /** Validators of the response, used to revalidate a cached result */
+    String etag;
+    String lastModified;
+    /** True if the result came from the {@link LinkCheckCache} */
+    boolean cached;
+
+    LinkCheckResult(String url, Status status, int httpStatus, long contentLength, long latencyMillis, String error) {
+        this.url = url;
+        this.status = status;
+        this.httpStatus = httpStatus;
+        this.contentLength = contentLength;
+        this.latencyMillis = latencyMillis;
+        this.error = error;
+    }
+
+    boolean ok() {
+        return status == Status.OK;
+    }
+
+    public String toString() {
+        return String.format("LinkCheckResult(%s), status:%s http:%d length:%d latency:%dms%s%s", url, status, httpStatus,
+                             contentLength, latencyMillis, cached ? " cached" : "", error == null ? "" : " error:" + error);
+    }
+}
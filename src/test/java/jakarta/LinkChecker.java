@@ -0,0 +1,215 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.LinkCheckResult.Status;
+
+/**
+ * Probes the staging repository and TCK URLs of a PR. All probes run concurrently on one shared {@link HttpClient},
+ * each with a per-request timeout, and a set of probes started together is bounded by an overall deadline. A probe
+ * sends a HEAD request and falls back to a GET of the first byte when the server rejects HEAD or does not report a
+ * length, so a multi hundred MB TCK zip is never downloaded. Results are served from and recorded in an optional
+ * {@link LinkCheckCache}.
+ *
+ * Concurrent checks of the same URL, typically from several PR reviews of a batch run, share a single in-flight
+ * probe whose result fans out to every caller, so a wave of reviews does not stampede Sonatype or eclipse.org.
+ */
+class LinkChecker {
+    final HttpClient client;
+    final Duration requestTimeout;
+    final Duration overallTimeout;
+    final LinkCheckCache cache;
+    /** Probes in progress by normalized URL */
+    final Map<String, CompletableFuture<LinkCheckResult>> inFlight = new ConcurrentHashMap<>();
+    /** Number of checks that joined a probe already in flight */
+    final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * @param requestTimeout - limit for connecting and for receiving the response headers of each request
+     * @param overallTimeout - limit for all the probes started by one {@link #checkAll(Collection)} call
+     * @param executor - executor for the HTTP client's response handling
+     * @param cache - result cache, or null to always probe
+     */
+    LinkChecker(Duration requestTimeout, Duration overallTimeout, Executor executor, LinkCheckCache cache) {
+        this.requestTimeout = requestTimeout;
+        this.overallTimeout = overallTimeout;
+        this.cache = cache;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(executor)
+            .build();
+    }
+
+    /**
+     * Start probing every URL. Each returned future completes within the overall deadline, with a TIMEOUT result if
+     * its probe has not finished by then.
+     *
+     * @param urls - the URLs to probe, duplicates are probed once
+     * @return pending result per URL, in iteration order of urls
+     */
+    Map<String, CompletableFuture<LinkCheckResult>> checkAll(Collection<String> urls) {
+        Map<String, CompletableFuture<LinkCheckResult>> results = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (!results.containsKey(url)) {
+                LinkCheckResult timedOut = new LinkCheckResult(url, Status.TIMEOUT, 0, -1, overallTimeout.toMillis(),
+                                                               "overall deadline exceeded");
+                results.put(url, check(url).completeOnTimeout(timedOut, overallTimeout.toMillis(), TimeUnit.MILLISECONDS));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Check a single URL, joining the probe of the same URL if one is already in flight
+     * @param url - the URL to check
+     * @return the pending result, never completing exceptionally
+     */
+    CompletableFuture<LinkCheckResult> check(String url) {
+        LinkCheckCache.Entry entry = cache == null ? null : cache.get(url);
+        if (entry != null && cache.isFresh(entry)) {
+            cache.hits.incrementAndGet();
+            return CompletableFuture.completedFuture(entry.toResult(url));
+        }
+        String key = LinkCheckCache.normalize(url);
+        CompletableFuture<LinkCheckResult> shared = new CompletableFuture<>();
+        CompletableFuture<LinkCheckResult> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            // A copy, so that a caller completing its future on a deadline does not complete it for the others
+            return existing.copy();
+        }
+        probe(url, entry).whenComplete((result, e) -> {
+            inFlight.remove(key, shared);
+            shared.complete(e == null ? result : new LinkCheckResult(url, Status.FAILED, 0, -1, 0, e.toString()));
+        });
+        return shared.copy();
+    }
+
+    /**
+     * Probe a single URL over the network, revalidating the expired cache entry if there is one
+     */
+    private CompletableFuture<LinkCheckResult> probe(String url, LinkCheckCache.Entry entry) {
+        long start = System.nanoTime();
+        URI uri;
+        try {
+            uri = new URI(url);
+            if (!"http".equals(uri.getScheme()) && !"https".equals(uri.getScheme()) || uri.getHost() == null) {
+                throw new URISyntaxException(url, "not an http(s) URL");
+            }
+        } catch (URISyntaxException e) {
+            return CompletableFuture.completedFuture(result(url, Status.FAILED, 0, -1, start, e.getMessage()));
+        }
+
+        HttpRequest.Builder head = request(uri).method("HEAD", HttpRequest.BodyPublishers.noBody());
+        boolean revalidate = entry != null && entry.status == Status.OK && entry.revalidatable();
+        if (revalidate) {
+            if (entry.etag != null) {
+                head.header("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                head.header("If-Modified-Since", entry.lastModified);
+            }
+        }
+        CompletableFuture<LinkCheckResult> probe = client.sendAsync(head.build(), HttpResponse.BodyHandlers.discarding())
+            .thenCompose(response -> {
+                int status = response.statusCode();
+                if (revalidate && status == 304) {
+                    cache.revalidations.incrementAndGet();
+                    cache.revalidated(entry);
+                    return CompletableFuture.completedFuture(entry.toResult(url));
+                }
+                long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                if (status < 400 && length > 0 || status == 404 || status == 410) {
+                    return CompletableFuture.completedFuture(fromResponse(url, response, length, start));
+                }
+                // Some servers reject HEAD or leave out the length, ask for the first byte instead
+                return rangeGet(url, uri, start);
+            })
+            .exceptionally(e -> failure(url, e, start));
+        if (cache == null) {
+            return probe;
+        }
+        return probe.thenApply(result -> {
+            if (!result.cached) {
+                cache.misses.incrementAndGet();
+                cache.put(result);
+            }
+            return result;
+        });
+    }
+
+    private CompletableFuture<LinkCheckResult> rangeGet(String url, URI uri, long start) {
+        HttpRequest get = request(uri).header("Range", "bytes=0-0").GET().build();
+        return client.sendAsync(get, HttpResponse.BodyHandlers.ofInputStream())
+            .thenApply(response -> {
+                try {
+                    int status = response.statusCode();
+                    long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                    if (status == 206) {
+                        // Content-Range: bytes 0-0/12345
+                        String range = response.headers().firstValue("Content-Range").orElse("");
+                        int slash = range.lastIndexOf('/');
+                        length = slash < 0 || range.endsWith("*") ? -1 : Long.parseLong(range.substring(slash + 1).trim());
+                    }
+                    return fromResponse(url, response, length, start);
+                } catch (NumberFormatException e) {
+                    return failure(url, e, start);
+                } finally {
+                    // Closing without reading drops the connection if the server ignored the range and sent everything
+                    close(response.body());
+                }
+            });
+    }
+
+    private static void close(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException e) {
+            // The status is known, a body that fails to close does not change the result
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(requestTimeout);
+    }
+
+    private static LinkCheckResult fromResponse(String url, HttpResponse<?> response, long length, long start) {
+        int httpStatus = response.statusCode();
+        Status status = httpStatus >= 400 ? Status.HTTP_ERROR : length > 0 ? Status.OK : Status.EMPTY;
+        LinkCheckResult result = result(url, status, httpStatus, length, start, null);
+        result.etag = response.headers().firstValue("ETag").orElse(null);
+        result.lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        return result;
+    }
+
+    private static LinkCheckResult failure(String url, Throwable e, long start) {
+        while (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        Status status = e instanceof HttpTimeoutException ? Status.TIMEOUT : Status.FAILED;
+        return result(url, status, 0, -1, start, e.toString());
+    }
+
+    private static LinkCheckResult result(String url, Status status, int httpStatus, long length, long start, String error) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new LinkCheckResult(url, status, httpStatus, length, latency, error);
+    }
+}
@@ -0,0 +1,87 @@
+package jakarta;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHPullRequestFileDetail;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Wall time of listing and classifying the files of a large PR against {@link MockGitHubServer}, through the API
+ * binding's sequential page iteration and through {@link RestPullRequestFetcher#listFiles} with prefetch windows of
+ * 1, 2 and 4 pages. The listing has 100 files per page, so the default 3,000 files are 30 pages.
+ *
+ * Arguments: [files (3000)] [latency ms (20)] [rounds (5)]
+ */
+public class ListingBenchmark {
+    public static void main(String[] args) throws Exception {
+        int fileCount = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        try (MockGitHubServer server = new MockGitHubServer(Path.of("src/test/resources/mock-github"))) {
+            server.latencyMillis = args.length > 1 ? Long.parseLong(args[1]) : 20;
+            server.start();
+            ArrayNode files = GitHubRest.MAPPER.createArrayNode();
+            for (String file : FileClassifierBenchmark.files(fileCount, true)) {
+                files.addObject().put("filename", file).put("status", "added");
+            }
+            server.put("/repos/" + PRTests.REPOSITORY + "/pulls/1/files", files);
+            int pages = (fileCount + RestPullRequestFetcher.MAX_PAGE_SIZE - 1) / RestPullRequestFetcher.MAX_PAGE_SIZE;
+            System.out.printf("PR with %d files, %d pages, latency %dms, best of %d rounds\n", fileCount, pages,
+                              server.latencyMillis, rounds);
+
+            // No HTTP cache, every round goes to the server
+            OkHttpClient client = new OkHttpClient();
+            GitHub github = GitHubClients.build(server.url(), "token", client);
+            GHRepository repo = github.getRepository(PRTests.REPOSITORY);
+            ExecutorService ioExecutor = ReviewExecutors.newIoExecutor();
+            RestPullRequestFetcher fetcher = new RestPullRequestFetcher(github, repo,
+                                                                        new GitHubRest(client, server.url(), "token"),
+                                                                        ioExecutor);
+            long sequential = Long.MAX_VALUE;
+            long[] windows = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+            int[] windowPages = {1, 2, 4};
+            try {
+                for (int round = 0; round < rounds; round++) {
+                    long start = System.nanoTime();
+                    GHPullRequest pr = repo.getPullRequest(1);
+                    SpecFiles classified = new SpecFiles();
+                    for (GHPullRequestFileDetail file : pr.listFiles().withPageSize(RestPullRequestFetcher.MAX_PAGE_SIZE)) {
+                        classified.add(file.getFilename());
+                    }
+                    sequential = Math.min(sequential, System.nanoTime() - start);
+                    check(classified, fileCount);
+
+                    for (int n = 0; n < windowPages.length; n++) {
+                        fetcher.prefetchPages = windowPages[n];
+                        start = System.nanoTime();
+                        classified = fetcher.listFiles(1);
+                        windows[n] = Math.min(windows[n], System.nanoTime() - start);
+                        check(classified, fileCount);
+                    }
+                }
+            } finally {
+                ioExecutor.shutdownNow();
+            }
+            System.out.printf("%-28s %6.1f ms\n", "binding, Link rel=next", sequential / 1e6);
+            for (int n = 0; n < windowPages.length; n++) {
+                System.out.printf("%-28s %6.1f ms\n", "listFiles, prefetch " + windowPages[n], windows[n] / 1e6);
+            }
+            System.out.println(server.summary());
+        }
+        System.exit(0);
+    }
+
+    static void check(SpecFiles files, int fileCount) {
+        int listed = files.specCount + files.javadocCount + files.otherFiles.size();
+        if (listed != fileCount) {
+            throw new IllegalStateException("Listed " + listed + " of " + fileCount + " files");
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Offline stand-in for the GitHub REST and GraphQL APIs and the staging and TCK download servers, so the review can be run and
+ * load tested without a token or network access. Point the client at {@link #url()}, e.g. with the GITHUB_API_URL
+ * environment variable of {@link PRTests#main(String[])}.
+ *
+ * GET requests are served from recorded JSON fixtures. A fixture directory mirrors the API paths, so
+ * repos/owner/name/pulls/1.json answers GET /repos/owner/name/pulls/1, and {{base}} in a fixture stands for the server
+ * url. Array fixtures are paginated with per_page and page and Link headers, like GitHub. Issue comments of the
+ * fixtures can also be fetched by id and updated with PATCH, the update showing in the comment listings. Paths under
+ * /artifacts/ stand in for staging repository and TCK links; they exist with 1KB of content unless they contain
+ * "missing".
+ *
+ * POST /graphql answers the named queries and mutation of {@link GraphQLPullRequestFetcher}. The PullRequest and
+ * PullRequestFiles queries are served from recorded responses: graphql/repos/owner/name/pulls/1.json answers the
+ * PullRequest query of PR 1, and graphql/repos/owner/name/pulls/1/files/{cursor}.json the page of its files after a
+ * cursor. The checklist node, the comments of a PR and comment updates use the same comments as the REST API.
+ *
+ * Like GitHub, every response carries an ETag and X-RateLimit headers, a matching If-None-Match gets a 304, and only
+ * other responses use up the rate limit. Each request is delayed by the configured latency plus a uniformly random
+ * jitter, drawn from a seeded generator so runs are repeatable.
+ */
+class MockGitHubServer implements AutoCloseable {
+    static final String BASE_PLACEHOLDER = "{{base}}";
+    /** The REST API maximum for per_page */
+    static final int MAX_PAGE_SIZE = 100;
+    static final int ARTIFACT_SIZE = 1024;
+    /** The operation name of a named GraphQL query or mutation */
+    static final Pattern OPERATION = Pattern.compile("\\s*(?:query|mutation)\\s+(\\w+)");
+
+    final Path fixtureDir;
+    final Map<String, JsonNode> resources = new ConcurrentHashMap<>();
+    final Map<Long, ObjectNode> comments = new ConcurrentHashMap<>();
+    /** Delay of every response in ms */
+    long latencyMillis;
+    /** Upper bound of the random delay added to the latency in ms */
+    long jitterMillis;
+    /** Page size of array resources when the request has no per_page */
+    int pageSize = 30;
+    /** Requests per hour, used up by every response but a 304 */
+    int rateLimit = 5000;
+    final Random random = new Random(42);
+    final AtomicInteger rateLimitUsed = new AtomicInteger();
+    final AtomicLong requests = new AtomicLong();
+    final AtomicLong commentUpdates = new AtomicLong();
+    private final long rateLimitReset = Instant.now().getEpochSecond() + 3600;
+    private final ExecutorService executor = ReviewExecutors.newIoExecutor();
+    private HttpServer server;
+
+    /**
+     * @param fixtureDir - directory of the recorded responses, or null to only serve fixtures added with
+     * {@link #put(String, JsonNode)}
+     */
+    MockGitHubServer(Path fixtureDir) {
+        this.fixtureDir = fixtureDir;
+    }
+
+    /**
+     * Start serving on a free localhost port and load the fixtures
+     * @return this server
+     * @throws IOException - on failure
+     */
+    MockGitHubServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 200);
+        server.createContext("/", this::handle);
+        // Delayed responses must not hold up each other
+        server.setExecutor(executor);
+        server.start();
+        if (fixtureDir != null) {
+            try (Stream<Path> files = Files.walk(fixtureDir)) {
+                for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".json"))::iterator) {
+                    String path = "/" + fixtureDir.relativize(file).toString().replace('\\', '/');
+                    String json = Files.readString(file, StandardCharsets.UTF_8).replace(BASE_PLACEHOLDER, url());
+                    put(path.substring(0, path.length() - ".json".length()), GitHubRest.MAPPER.readTree(json));
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the url of the server, to be used as the API endpoint
+     */
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Serve a resource. The comments of an issue comment listing also become available by id.
+     * @param path - the API path, e.g. /repos/owner/name/issues/1/comments
+     * @param resource - the response
+     */
+    void put(String path, JsonNode resource) {
+        resources.put(path, resource);
+        if (path.matches("/repos/[^/]+/[^/]+/issues/[0-9]+/comments") && resource.isArray()) {
+            for (JsonNode comment : resource) {
+                comments.put(comment.path("id").asLong(), (ObjectNode) comment);
+            }
+        }
+    }
+
+    /**
+     * @return a one line summary of the traffic served so far
+     */
+    String summary() {
+        return String.format("mock GitHub: %d requests, %d rate limit points, %d comment updates", requests.get(),
+                             rateLimitUsed.get(), commentUpdates.get());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            long delay = latencyMillis + (jitterMillis > 0 ? (long) (random.nextDouble() * jitterMillis) : 0);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.startsWith("/artifacts/")) {
+                artifact(exchange, path);
+                return;
+            }
+            if (path.equals("/graphql")) {
+                if (exchange.getRequestMethod().equals("POST")) {
+                    graphql(exchange);
+                } else {
+                    respond(exchange, 405, error("Method Not Allowed"), null);
+                }
+                return;
+            }
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            int slash = path.lastIndexOf('/');
+            boolean commentPath = path.matches("/repos/[^/]+/[^/]+/issues/comments/[0-9]+");
+            if (commentPath && method.equals("PATCH")) {
+                updateComment(exchange, Long.parseLong(path.substring(slash + 1)));
+            } else if (!method.equals("GET")) {
+                respond(exchange, 405, error("Method Not Allowed"), null);
+            } else if (commentPath) {
+                ObjectNode comment = comments.get(Long.parseLong(path.substring(slash + 1)));
+                respond(exchange, comment == null ? 404 : 200, comment == null ? error("Not Found") : comment, null);
+            } else {
+                JsonNode resource = resources.get(path);
+                if (resource == null) {
+                    respond(exchange, 404, error("Not Found"), null);
+                } else if (resource.isArray()) {
+                    page(exchange, path, query, (ArrayNode) resource);
+                } else {
+                    respond(exchange, 200, resource, null);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void page(HttpExchange exchange, String path, Map<String, String> query, ArrayNode all) throws IOException {
+        ArrayNode resource = all;
+        String state = query.get("state");
+        if (state != null && !state.equals("all")) {
+            resource = GitHubRest.MAPPER.createArrayNode();
+            for (JsonNode item : all) {
+                if (item.path("state").asText("open").equals(state)) {
+                    resource.add(item);
+                }
+            }
+        }
+        int perPage = Math.min(MAX_PAGE_SIZE, Integer.parseInt(query.getOrDefault("per_page", Integer.toString(pageSize))));
+        int page = Math.max(1, Integer.parseInt(query.getOrDefault("page", "1")));
+        int last = Math.max(1, (resource.size() + perPage - 1) / perPage);
+        ArrayNode items = GitHubRest.MAPPER.createArrayNode();
+        for (int n = (page - 1) * perPage; n < Math.min(resource.size(), page * perPage); n++) {
+            items.add(resource.get(n));
+        }
+        StringBuilder link = new StringBuilder();
+        String pages = url() + path + "?" + (state == null ? "" : "state=" + state + "&") + "per_page=" + perPage + "&page=";
+        if (page < last) {
+            link.append('<').append(pages).append(page + 1).append(">; rel=\"next\", <").append(pages).append(last)
+                .append(">; rel=\"last\"");
+        }
+        if (page > 1) {
+            link.append(link.length() > 0 ? ", " : "").append('<').append(pages).append(page - 1)
+                .append(">; rel=\"prev\", <").append(pages).append(1).append(">; rel=\"first\"");
+        }
+        respond(exchange, 200, items, link.length() > 0 ? link.toString() : null);
+    }
+
+    private void updateComment(HttpExchange exchange, long id) throws IOException {
+        ObjectNode comment = comments.get(id);
+        if (comment == null) {
+            respond(exchange, 404, error("Not Found"), null);
+            return;
+        }
+        JsonNode update;
+        try (InputStream in = exchange.getRequestBody()) {
+            update = GitHubRest.MAPPER.readTree(in);
+        }
+        synchronized (comment) {
+            comment.put("body", update.path("body").asText());
+            comment.put("updated_at", Instant.now().toString());
+        }
+        commentUpdates.incrementAndGet();
+        respond(exchange, 200, comment, null);
+    }
+
+    private void graphql(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = GitHubRest.MAPPER.readTree(in);
+        }
+        Matcher operation = OPERATION.matcher(request.path("query").asText());
+        JsonNode variables = request.path("variables");
+        String pr = "/repos/" + variables.path("owner").asText() + "/" + variables.path("name").asText() + "/pulls/"
+                    + variables.path("number").asInt();
+        ObjectNode response = GitHubRest.MAPPER.createObjectNode();
+        switch (operation.lookingAt() ? operation.group(1) : "") {
+            case "PullRequest":
+                response = recorded("/graphql" + pr);
+                if (variables.path("hasComment").asBoolean()) {
+                    ObjectNode checklist = graphqlComment(variables.path("commentId").asText());
+                    ((ObjectNode) response.path("data")).set("checklist", checklist);
+                    if (checklist == null) {
+                        graphqlError(response, "NOT_FOUND", "Could not resolve to a node with the global id of '"
+                                                            + variables.path("commentId").asText() + "'", "checklist");
+                    }
+                }
+                break;
+            case "PullRequestFiles":
+                response = recorded("/graphql" + pr + "/files/" + variables.path("cursor").asText());
+                break;
+            case "PullRequestComments":
+                JsonNode comments = resources.getOrDefault(pr.replace("/pulls/", "/issues/") + "/comments",
+                                                           GitHubRest.MAPPER.createArrayNode());
+                // Like GitHub, a cursor is the base64 of the position of a comment
+                int end = variables.hasNonNull("cursor") ? cursorPosition(variables.path("cursor").asText())
+                    : comments.size();
+                int start = Math.max(0, end - MAX_PAGE_SIZE);
+                ObjectNode connection = response.putObject("data").putObject("repository").putObject("pullRequest")
+                    .putObject("comments");
+                connection.putObject("pageInfo").put("hasPreviousPage", start > 0).put("startCursor", cursor(start));
+                ArrayNode nodes = connection.putArray("nodes");
+                for (int n = start; n < end; n++) {
+                    nodes.add(graphqlComment(comments.get(n).path("node_id").asText()));
+                }
+                break;
+            case "UpdateIssueComment":
+                ObjectNode comment = comment(variables.path("id").asText());
+                if (comment == null) {
+                    response.putNull("data");
+                    graphqlError(response, "NOT_FOUND", "Could not resolve to a node with the global id of '"
+                                                        + variables.path("id").asText() + "'", "updateIssueComment");
+                    break;
+                }
+                synchronized (comment) {
+                    comment.put("body", variables.path("body").asText());
+                    comment.put("updated_at", Instant.now().toString());
+                }
+                commentUpdates.incrementAndGet();
+                response.putObject("data").putObject("updateIssueComment").putObject("issueComment")
+                    .put("id", comment.path("node_id").asText());
+                break;
+            default:
+                graphqlError(response, "UNKNOWN_OPERATION", "No recorded responses for " + request.path("query").asText(),
+                             null);
+        }
+        respond(exchange, 200, response, null);
+    }
+
+    /**
+     * @param path - path of a recorded GraphQL response
+     * @return a copy of the response, or a response with a null pull request and a NOT_FOUND error
+     */
+    private ObjectNode recorded(String path) {
+        JsonNode response = resources.get(path);
+        if (response != null) {
+            return response.deepCopy();
+        }
+        ObjectNode notFound = GitHubRest.MAPPER.createObjectNode();
+        notFound.putObject("data").putObject("repository").putNull("pullRequest");
+        graphqlError(notFound, "NOT_FOUND", "No recorded response for " + path, "repository");
+        return notFound;
+    }
+
+    private static void graphqlError(ObjectNode response, String type, String message, String path) {
+        ObjectNode error = response.withArray("errors").addObject().put("type", type).put("message", message);
+        if (path != null) {
+            error.putArray("path").add(path);
+        }
+    }
+
+    /**
+     * @param nodeId - GraphQL node id of an issue comment
+     * @return the comment, or null
+     */
+    private ObjectNode comment(String nodeId) {
+        for (ObjectNode comment : comments.values()) {
+            if (comment.path("node_id").asText().equals(nodeId)) {
+                return comment;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param nodeId - GraphQL node id of an issue comment
+     * @return the comment as the queries of {@link GraphQLPullRequestFetcher} select it, or null
+     */
+    private ObjectNode graphqlComment(String nodeId) {
+        ObjectNode comment = comment(nodeId);
+        if (comment == null) {
+            return null;
+        }
+        ObjectNode node = GitHubRest.MAPPER.createObjectNode();
+        synchronized (comment) {
+            node.put("id", nodeId).put("databaseId", comment.path("id").asLong()).put("body", comment.path("body").asText());
+        }
+        JsonNode login = comment.path("user").path("login");
+        if (login.isTextual()) {
+            node.putObject("author").put("login", login.asText());
+        } else {
+            node.putNull("author");
+        }
+        return node;
+    }
+
+    static String cursor(int position) {
+        return Base64.getEncoder().encodeToString(("cursor:" + position).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static int cursorPosition(String cursor) {
+        String decoded = new String(Base64.getDecoder().decode(cursor), StandardCharsets.UTF_8);
+        return Integer.parseInt(decoded.substring("cursor:".length()));
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode resource, String link) throws IOException {
+        byte[] body;
+        synchronized (resource) {
+            body = GitHubRest.MAPPER.writeValueAsBytes(resource);
+        }
+        String etag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+        boolean notModified = status == 200 && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"));
+        int used = notModified ? rateLimitUsed.get() : rateLimitUsed.incrementAndGet();
+        if (used > rateLimit) {
+            status = 403;
+            body = GitHubRest.MAPPER.writeValueAsBytes(error("API rate limit exceeded"));
+        }
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", Integer.toString(rateLimit));
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", Integer.toString(Math.max(0, rateLimit - used)));
+        exchange.getResponseHeaders().set("X-RateLimit-Used", Integer.toString(Math.min(used, rateLimit)));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", Long.toString(rateLimitReset));
+        exchange.getResponseHeaders().set("X-RateLimit-Resource", "core");
+        if (status == 200) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "private, max-age=60, s-maxage=60");
+            exchange.getResponseHeaders().set("Vary", "Accept, Authorization");
+        }
+        if (link != null) {
+            exchange.getResponseHeaders().set("Link", link);
+        }
+        if (notModified && used <= rateLimit) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void artifact(HttpExchange exchange, String path) throws IOException {
+        if (path.contains("missing")) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            exchange.getResponseHeaders().set("Content-Length", Integer.toString(ARTIFACT_SIZE));
+            exchange.sendResponseHeaders(200, -1);
+        } else if (range != null && range.equals("bytes=0-0")) {
+            exchange.getResponseHeaders().set("Content-Range", "bytes 0-0/" + ARTIFACT_SIZE);
+            exchange.sendResponseHeaders(206, 1);
+            exchange.getResponseBody().write(0);
+        } else {
+            exchange.sendResponseHeaders(200, ARTIFACT_SIZE);
+            exchange.getResponseBody().write(new byte[ARTIFACT_SIZE]);
+        }
+    }
+
+    private static ObjectNode error(String message) {
+        return GitHubRest.MAPPER.createObjectNode().put("message", message)
+            .put("documentation_url", "https://docs.github.com/rest");
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        HashMap<String, String> query = new HashMap<>();
+        for (String param : rawQuery == null ? List.<String>of() : List.of(rawQuery.split("&"))) {
+            int equals = param.indexOf('=');
+            if (equals > 0) {
+                query.put(param.substring(0, equals), URLDecoder.decode(param.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Run the server until killed. The mock.latency, mock.jitter, mock.pageSize and mock.rateLimit system properties
+     * set the latency and jitter in ms, default page size and hourly rate limit.
+     *
+     * Arguments: [fixture directory (src/test/resources/mock-github)]
+     */
+    public static void main(String[] args) throws Exception {
+        MockGitHubServer server = new MockGitHubServer(Path.of(args.length > 0 ? args[0] : "src/test/resources/mock-github"));
+        server.latencyMillis = Long.getLong("mock.latency", 0);
+        server.jitterMillis = Long.getLong("mock.jitter", 0);
+        server.pageSize = Integer.getInteger("mock.pageSize", 30);
+        server.rateLimit = Integer.getInteger("mock.rateLimit", 5000);
+        server.start();
+        System.out.printf("Serving %d fixtures, run the review with GITHUB_API_URL=%s\n", server.resources.size(),
+                          server.url());
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,185 @@
+package jakarta;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.HttpConnector;
+
+import okhttp3.CacheControl;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * {@link HttpConnector} running every call through the given {@link OkHttpClient} as is. The OkHttpConnector of
+ * github-api clears the application and network interceptors of its client, so this connector is what lets
+ * interceptors such as {@link TrafficArchive}'s see the binding's calls. It implements the part of
+ * {@link HttpURLConnection} the binding uses: request method, headers and body, response code, headers and body.
+ * Like OkHttpConnector, it revalidates cached responses older than the given max age.
+ */
+class OkHttpCallConnector implements HttpConnector {
+    final OkHttpClient client;
+    final String cacheControl;
+
+    /**
+     * @param client - the client, with its interceptors
+     * @param cacheMaxAge - max age in seconds of cached responses used without revalidation
+     */
+    OkHttpCallConnector(OkHttpClient client, int cacheMaxAge) {
+        this.client = client;
+        this.cacheControl = client.cache() == null ? null
+            : new CacheControl.Builder().maxAge(cacheMaxAge, TimeUnit.SECONDS).build().toString();
+    }
+
+    @Override
+    public HttpURLConnection connect(URL url) {
+        return new CallConnection(url);
+    }
+
+    /**
+     * A connection that makes its call on the first access to the response
+     */
+    class CallConnection extends HttpURLConnection {
+        private final Headers.Builder requestHeaders = new Headers.Builder();
+        private ByteArrayOutputStream requestBody;
+        private Response response;
+        private byte[] responseBody;
+
+        CallConnection(URL url) {
+            super(url);
+        }
+
+        @Override
+        public void setRequestMethod(String method) {
+            // Unlike HttpURLConnection, allow PATCH
+            this.method = method;
+        }
+
+        @Override
+        public void setRequestProperty(String key, String value) {
+            requestHeaders.set(key, value);
+        }
+
+        @Override
+        public void addRequestProperty(String key, String value) {
+            requestHeaders.add(key, value);
+        }
+
+        @Override
+        public String getRequestProperty(String key) {
+            return requestHeaders.get(key);
+        }
+
+        @Override
+        public Map<String, List<String>> getRequestProperties() {
+            return requestHeaders.build().toMultimap();
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            setDoOutput(true);
+            if (requestBody == null) {
+                requestBody = new ByteArrayOutputStream();
+            }
+            return requestBody;
+        }
+
+        @Override
+        public void connect() throws IOException {
+            if (response != null) {
+                return;
+            }
+            if (cacheControl != null && requestHeaders.get("Cache-Control") == null) {
+                requestHeaders.set("Cache-Control", cacheControl);
+            }
+            Headers headers = requestHeaders.build();
+            RequestBody body = null;
+            if (requestBody != null || method.equals("POST") || method.equals("PUT") || method.equals("PATCH")) {
+                String type = headers.get("Content-Type");
+                body = RequestBody.create(requestBody == null ? new byte[0] : requestBody.toByteArray(),
+                                          type == null ? null : MediaType.parse(type));
+            }
+            Request request = new Request.Builder().url(url).headers(headers).method(method, body).build();
+            response = client.newCall(request).execute();
+            try (ResponseBody responseBody = response.body()) {
+                this.responseBody = responseBody == null ? new byte[0] : responseBody.bytes();
+            }
+            responseCode = response.code();
+            responseMessage = response.message();
+            connected = true;
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            connect();
+            return responseCode;
+        }
+
+        @Override
+        public String getResponseMessage() throws IOException {
+            connect();
+            return responseMessage;
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            try {
+                connect();
+            } catch (IOException e) {
+                return Map.of();
+            }
+            return new LinkedHashMap<>(response.headers().toMultimap());
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            try {
+                connect();
+            } catch (IOException e) {
+                return null;
+            }
+            return response.header(name);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            connect();
+            if (responseCode >= 400) {
+                if (responseCode == 404 || responseCode == 410) {
+                    throw new FileNotFoundException(url.toString());
+                }
+                throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + url);
+            }
+            return new ByteArrayInputStream(responseBody);
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return response != null && responseCode >= 400 ? new ByteArrayInputStream(responseBody) : null;
+        }
+
+        @Override
+        public void disconnect() {
+            // The response body is read and closed on connect
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+    }
+}
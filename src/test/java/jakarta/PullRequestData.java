@@ -0,0 +1,60 @@
+package jakarta;
+
+import java.io.IOException;
+
+/**
+ * Everything a review consumes from a PR, fetched up front so that rendering the checklist makes no API calls
+ */
+class PullRequestData {
+    int number;
+    String title = "";
+    String body = "";
+    String url = "";
+    /** Login of the assignee, or null if the PR is unassigned */
+    String assignee;
+    int changedFiles;
+    /** Number of review comments, -1 if the fetch path does not provide it */
+    int reviewComments = -1;
+    /** Number of issue comments, -1 if the fetch path does not provide it */
+    int comments = -1;
+    /** Head commit and base branch of the PR, null if the fetch path does not provide them */
+    String commit;
+    /** The PR files, classified as the fetcher receives them */
+    SpecFiles files = new SpecFiles();
+    /** The assignee's checklist comment, or null if there is none */
+    Comment checklist;
+
+    /**
+     * An issue comment on the PR that the review may update
+     */
+    abstract static class Comment {
+        final long id;
+        /** GraphQL node id, or null if the fetch path does not provide it */
+        final String nodeId;
+        /** Login of the author, or null for comments of deleted accounts */
+        final String author;
+        final String body;
+
+        Comment(long id, String nodeId, String author, String body) {
+            this.id = id;
+            this.nodeId = nodeId;
+            this.author = author;
+            this.body = body;
+        }
+
+        /**
+         * @param assignee - login of the PR assignee, or null
+         * @return true if this is the checklist comment of the assignee
+         */
+        boolean isChecklistOf(String assignee) {
+            return assignee != null && assignee.equals(author) && ChecklistComment.isChecklist(body);
+        }
+
+        /**
+         * Replace the body of the comment on GitHub with the {@link ChecklistComment} of a review
+         * @param review - the checks of the PR
+         * @throws IOException - on failure
+         */
+        abstract void update(ReviewResults review) throws IOException;
+    }
+}
@@ -0,0 +1,32 @@
+package jakarta;
+
+import java.io.IOException;
+
+/**
+ * Fetches everything a review consumes from a PR
+ */
+interface PullRequestFetcher {
+    /**
+     * Fetch the PR, its files and the assignee's checklist comment. The comment remembered from an earlier review is
+     * fetched directly. Only if it is unknown, deleted or no longer a checklist of the assignee are the comments
+     * scanned, newest first, stopping at the first checklist comment of the assignee.
+     *
+     * @param prNumber - the PR number in the repository
+     * @param known - the checklist comment remembered from an earlier review, or null
+     * @return the fetched data
+     * @throws IOException - on failure
+     */
+    PullRequestData fetch(int prNumber, ReviewState.Entry known) throws IOException;
+
+    /**
+     * Fetch what a review needs beyond the PR of a pull_request webhook payload. By default the PR is fetched anew.
+     *
+     * @param pullRequest - the PR as read from the payload, without files and checklist comment
+     * @param known - the checklist comment remembered from an earlier review, or null
+     * @return the fetched data
+     * @throws IOException - on failure
+     */
+    default PullRequestData fetch(PullRequestData pullRequest, ReviewState.Entry known) throws IOException {
+        return fetch(pullRequest.number, known);
+    }
+}
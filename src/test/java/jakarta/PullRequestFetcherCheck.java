@@ -0,0 +1,93 @@
+package jakarta;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Check that {@link GraphQLPullRequestFetcher} and {@link RestPullRequestFetcher} fetch the same data from the
+ * recorded fixtures of {@link MockGitHubServer}. Every fixture PR is fetched with no remembered checklist comment,
+ * with the checklist comment found by the REST fetch remembered, and with a remembered comment that was deleted. PR 2
+ * has more files than a GraphQL page, so its files take a second, cursor query. The url and review comment count are
+ * not compared, GraphQL gives the html url and no review comment count. Exits with status 1 if any fetch differs.
+ *
+ * Arguments: [fixture directory (src/test/resources/mock-github)]
+ */
+public class PullRequestFetcherCheck {
+    public static void main(String[] args) throws Exception {
+        Path fixtures = Path.of(args.length > 0 ? args[0] : "src/test/resources/mock-github");
+        int failed = 0;
+        int checked = 0;
+        ExecutorService ioExecutor = ReviewExecutors.newIoExecutor();
+        try (MockGitHubServer server = new MockGitHubServer(fixtures).start()) {
+            OkHttpClient client = new OkHttpClient();
+            GitHub github = GitHubClients.build(server.url(), "token", client);
+            GHRepository repo = github.getRepository(PRTests.REPOSITORY);
+            GitHubRest rest = new GitHubRest(client, server.url(), "token");
+            RestPullRequestFetcher restFetcher = new RestPullRequestFetcher(github, repo, rest, ioExecutor);
+            GraphQLPullRequestFetcher graphqlFetcher = new GraphQLPullRequestFetcher(rest, PRTests.REPOSITORY);
+
+            for (JsonNode pr : server.resources.get("/repos/" + PRTests.REPOSITORY + "/pulls")) {
+                int number = pr.path("number").asInt();
+                PullRequestData expected = restFetcher.fetch(number, null);
+                ReviewState.Entry remembered = null;
+                if (expected.checklist != null) {
+                    remembered = new ReviewState.Entry();
+                    remembered.commentId = expected.checklist.id;
+                    remembered.commentNodeId = expected.checklist.nodeId;
+                }
+                ReviewState.Entry deleted = new ReviewState.Entry();
+                deleted.commentId = 999999;
+                deleted.commentNodeId = "IC_999999";
+                for (ReviewState.Entry known : new ReviewState.Entry[] {null, remembered, deleted}) {
+                    String description = "PR#" + number + (known == null ? "" : known == deleted
+                        ? " with a deleted comment remembered" : " with the checklist remembered");
+                    String restFetch = render(restFetcher.fetch(number, known));
+                    String graphqlFetch = render(graphqlFetcher.fetch(number, known));
+                    checked++;
+                    if (!graphqlFetch.equals(restFetch)) {
+                        failed++;
+                        System.out.printf("--- %s differs, REST:\n%sGraphQL:\n%s", description, restFetch, graphqlFetch);
+                    } else {
+                        System.out.printf("+++ %s, %d files\n", description, expected.changedFiles);
+                    }
+                }
+            }
+            System.out.println(server.summary());
+        } finally {
+            ioExecutor.shutdownNow();
+        }
+        System.out.printf("%d fetches, %d differ\n", checked, failed);
+        System.exit(failed > 0 ? 1 : 0);
+    }
+
+    /**
+     * @param data - a fetched PR
+     * @return one line per compared field
+     */
+    static String render(PullRequestData data) {
+        SpecFiles files = data.files;
+        List<String> lines = new ArrayList<>();
+        lines.add("number: " + data.number);
+        lines.add("title: " + data.title);
+        lines.add("body: " + CheckboxParserGolden.escape(data.body));
+        lines.add("assignee: " + data.assignee);
+        lines.add("changedFiles: " + data.changedFiles);
+        lines.add("spec: " + files.specCount + " " + files.specName + " " + files.specVersion + " pdf=" + files.specPdfPath
+                  + " html=" + files.specHtmlPath);
+        lines.add("javadoc: " + files.javadocCount);
+        lines.add("other: " + files.otherFiles);
+        PullRequestData.Comment checklist = data.checklist;
+        lines.add("checklist: " + (checklist == null ? null : checklist.id + " " + checklist.nodeId + " "
+                                   + checklist.author + " " + CheckboxParserGolden.escape(checklist.body)));
+        return String.join("\n", lines) + "\n";
+    }
+}
@@ -0,0 +1,60 @@
+package jakarta;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.kohsuke.github.GitHub;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Time reviews of a PR answered from a {@link TrafficArchive} recorded with the review.record system property of
+ * {@link PRTests#main(String[])}, so the same captured run can be compared across code versions. Every review starts
+ * without remembered checklist comments, so record with an empty review.cacheDir for the reviews to make the captured
+ * calls. The first review warms up the JVM and the link check cache, whose links are still checked over the network;
+ * it is not counted.
+ *
+ * Arguments: archive [reviews (20)] [PR number (1)] [fast|original (fast)]
+ */
+public class ReplayBenchmark {
+    public static void main(String[] args) throws Exception {
+        Path archive = Path.of(args[0]);
+        int reviews = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int prNumber = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        boolean originalSpeed = args.length > 3 && args[3].equals("original");
+        // Before ReviewPipeline reads it
+        System.setProperty("review.cacheDir", Files.createTempDirectory("review-cache").toString());
+
+        TrafficArchive.Replayer replayer = new TrafficArchive.Replayer(archive, originalSpeed);
+        System.out.printf("%d reviews of PR#%d replaying %d exchanges from %s at %s speed\n", reviews, prNumber,
+                          replayer.count(), archive, originalSpeed ? "original" : "full");
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(replayer).build();
+        GitHub github = GitHubClients.build(replayer.apiUrl(), "replay", client);
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        long total = 0;
+        // The review logs every step, keep the output to the results
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try (ReviewPipeline pipeline = new ReviewPipeline(github, github.getRepository(PRTests.REPOSITORY),
+                                                          new GitHubRest(client, github.getApiUrl(), "replay"))) {
+            pipeline.state.entries.clear();
+            pipeline.review(prNumber);
+            for (int n = 0; n < reviews; n++) {
+                pipeline.state.entries.clear();
+                long start = System.nanoTime();
+                pipeline.review(prNumber);
+                long elapsed = System.nanoTime() - start;
+                min = Math.min(min, elapsed);
+                max = Math.max(max, elapsed);
+                total += elapsed;
+            }
+        } finally {
+            System.setOut(out);
+        }
+        System.out.printf("review ms: mean %.2f, min %.2f, max %.2f\n", total / 1e6 / reviews, min / 1e6, max / 1e6);
+        System.exit(0);
+    }
+}
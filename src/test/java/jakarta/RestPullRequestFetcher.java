@@ -0,0 +1,304 @@
+package jakarta;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHUser;
+import org.kohsuke.github.GitHub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Fetches {@link PullRequestData} through the REST API. The PR metadata, the file pages and the remembered checklist
+ * comment only depend on the PR number, so the three are fetched concurrently and per-PR latency is that of the
+ * slowest chain rather than the sum of all three. With a webhook payload only the files and the comment are fetched.
+ * Listings are fetched review.pageSize items per page (default and maximum 100), with the next review.prefetchPages
+ * pages (default 2) on their way while the current one is processed.
+ */
+class RestPullRequestFetcher implements PullRequestFetcher {
+    /** The REST API maximum for per_page */
+    static final int MAX_PAGE_SIZE = 100;
+    /** Items per page of the file and comment listings, from 1 to {@link #MAX_PAGE_SIZE} */
+    static final int PAGE_SIZE = Math.max(Math.min(Integer.getInteger("review.pageSize", MAX_PAGE_SIZE), MAX_PAGE_SIZE), 1);
+    /** Default of {@link #prefetchPages} */
+    static final int PREFETCH_PAGES = Math.max(Integer.getInteger("review.prefetchPages", 2), 1);
+    /** Number of PRs whose files are kept for their head commit, the least recently reviewed are dropped first */
+    static final int MAX_FILES_AT_COMMIT = 256;
+
+    final GitHub github;
+    final GHRepository specRepo;
+    final GitHubRest rest;
+    final ExecutorService ioExecutor;
+    /** Pages of a listing requested ahead of the one being processed */
+    int prefetchPages = PREFETCH_PAGES;
+    /** The files of each PR fetched with a webhook payload, by PR number in access order. Guarded by itself. */
+    final Map<Integer, FilesAtCommit> filesAtCommit = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, FilesAtCommit> eldest) {
+            return size() > MAX_FILES_AT_COMMIT;
+        }
+    };
+
+    RestPullRequestFetcher(GitHub github, GHRepository specRepo, GitHubRest rest, ExecutorService ioExecutor) {
+        this.github = github;
+        this.specRepo = specRepo;
+        this.rest = rest;
+        this.ioExecutor = ioExecutor;
+    }
+
+    @Override
+    public PullRequestData fetch(int prNumber, ReviewState.Entry known) throws IOException {
+        CompletableFuture<GHPullRequest> prFuture = async(() -> specRepo.getPullRequest(prNumber));
+        CompletableFuture<SpecFiles> filesFuture = async(() -> listFiles(prNumber));
+        CompletableFuture<JsonNode> knownFuture = fetchKnown(known);
+
+        join(CompletableFuture.allOf(prFuture, filesFuture, knownFuture));
+
+        GHPullRequest pr = prFuture.join();
+        PullRequestData data = new PullRequestData();
+        data.number = prNumber;
+        data.title = pr.getTitle();
+        data.body = pr.getBody() == null ? "" : pr.getBody();
+        data.url = pr.getIssueUrl().toString();
+        GHUser assignee = pr.getAssignee();
+        data.assignee = assignee == null ? null : assignee.getLogin();
+        data.changedFiles = pr.getChangedFiles();
+        data.reviewComments = pr.getReviewComments();
+        data.files = filesFuture.join();
+        data.checklist = checklist(data, knownFuture.join());
+        return data;
+    }
+
+    /**
+     * Only fetch the files and the checklist comment of a PR read from a webhook payload. The files are kept
+     * per PR for the head commit they were listed at, so events that leave the commits alone, such as an edit of
+     * the PR body, do not list them again.
+     */
+    @Override
+    public PullRequestData fetch(PullRequestData pullRequest, ReviewState.Entry known) throws IOException {
+        int prNumber = pullRequest.number;
+        FilesAtCommit listed;
+        synchronized (filesAtCommit) {
+            listed = filesAtCommit.get(prNumber);
+        }
+        CompletableFuture<SpecFiles> filesFuture = listed != null && listed.commit.equals(pullRequest.commit)
+            ? CompletableFuture.completedFuture(listed.files) : async(() -> listFiles(prNumber));
+        CompletableFuture<JsonNode> knownFuture = fetchKnown(known);
+
+        join(CompletableFuture.allOf(filesFuture, knownFuture));
+
+        pullRequest.files = filesFuture.join();
+        if (pullRequest.commit != null) {
+            synchronized (filesAtCommit) {
+                filesAtCommit.put(prNumber, new FilesAtCommit(pullRequest.commit, pullRequest.files));
+            }
+        }
+        pullRequest.checklist = checklist(pullRequest, knownFuture.join());
+        return pullRequest;
+    }
+
+    /**
+     * The files of a PR and the head commit and base branch they were listed at
+     */
+    static class FilesAtCommit {
+        final String commit;
+        final SpecFiles files;
+
+        FilesAtCommit(String commit, SpecFiles files) {
+            this.commit = commit;
+            this.files = files;
+        }
+    }
+
+    private CompletableFuture<JsonNode> fetchKnown(ReviewState.Entry known) {
+        return known == null ? CompletableFuture.completedFuture(null) : async(() -> rest.get(commentPath(known.commentId)));
+    }
+
+    /**
+     * @param data - the PR
+     * @param knownComment - the remembered checklist comment, or null if there is none or it was deleted
+     * @return the assignee's checklist comment, or null
+     */
+    private RestComment checklist(PullRequestData data, JsonNode knownComment) throws IOException {
+        RestComment checklist = knownComment == null ? null : new RestComment(knownComment);
+        if (checklist == null || !checklist.isChecklistOf(data.assignee)) {
+            checklist = findChecklist(data.number, data.assignee);
+        }
+        return checklist;
+    }
+
+    /**
+     * Classify the files of the PR page by page as the listing arrives, instead of collecting the whole list first.
+     * The first page's Link header tells the number of pages, and the next {@link #prefetchPages} pages are fetched
+     * while the current one is classified.
+     * @return the classified files
+     */
+    SpecFiles listFiles(int prNumber) throws IOException {
+        String path = "/repos/" + specRepo.getFullName() + "/pulls/" + prNumber + "/files?per_page=" + PAGE_SIZE
+                      + "&page=";
+        SpecFiles files = new SpecFiles();
+        GitHubRest.Page first = rest.getPage(path + 1, 1);
+        if (first == null) {
+            throw new FileNotFoundException("No files listing for PR#" + prNumber);
+        }
+        addFiles(files, first.items);
+        PageWindow pages = new PageWindow(path, 2, first.lastPage, 1);
+        for (JsonNode page = pages.next(); page != null; page = pages.next()) {
+            addFiles(files, page);
+        }
+        return files;
+    }
+
+    private static void addFiles(SpecFiles files, JsonNode page) {
+        for (JsonNode file : page) {
+            files.add(file.path("filename").asText());
+        }
+    }
+
+    /**
+     * Scan the comments of the PR from the last page back, newest comment first. The first page's Link header tells
+     * the number of pages, as the comment count of a PR payload can be out of date. The pages before the current one
+     * are fetched while it is scanned, so a match costs up to {@link #prefetchPages} requests that go unused.
+     * @return the newest checklist comment of the assignee, or null
+     */
+    private RestComment findChecklist(int prNumber, String assignee) throws IOException {
+        if (assignee == null) {
+            return null;
+        }
+        String path = "/repos/" + specRepo.getFullName() + "/issues/" + prNumber + "/comments?per_page=" + PAGE_SIZE
+                      + "&page=";
+        GitHubRest.Page first = rest.getPage(path + 1, 1);
+        if (first == null) {
+            return null;
+        }
+        PageWindow pages = new PageWindow(path, first.lastPage, 2, -1);
+        for (JsonNode comments = pages.next(); comments != null; comments = pages.next()) {
+            RestComment checklist = newestChecklist(comments, assignee);
+            if (checklist != null) {
+                return checklist;
+            }
+        }
+        return newestChecklist(first.items, assignee);
+    }
+
+    private RestComment newestChecklist(JsonNode comments, String assignee) {
+        for (int n = comments.size() - 1; n >= 0; n--) {
+            RestComment comment = new RestComment(comments.get(n));
+            if (comment.isChecklistOf(assignee)) {
+                return comment;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Numbered pages of a listing in order, forwards or backwards, with up to {@link #prefetchPages} requests in
+     * flight ahead of the page being processed
+     */
+    class PageWindow {
+        private final String path;
+        private final int last;
+        private final int step;
+        private final ArrayDeque<CompletableFuture<JsonNode>> inFlight = new ArrayDeque<>();
+        private int requested;
+
+        /**
+         * @param path - path of the listing up to the page number
+         * @param first - number of the first page to return
+         * @param last - number of the last page to return, none if it comes before first
+         * @param step - 1 to go forwards, -1 to go backwards
+         */
+        PageWindow(String path, int first, int last, int step) {
+            this.path = path;
+            this.last = last;
+            this.step = step;
+            this.requested = (last - first) * step < 0 ? last : first - step;
+            fill();
+        }
+
+        /**
+         * @return the next page, an empty array for a page that no longer exists, or null after the last page
+         * @throws IOException - on failure
+         */
+        JsonNode next() throws IOException {
+            CompletableFuture<JsonNode> page = inFlight.poll();
+            if (page == null) {
+                return null;
+            }
+            fill();
+            JsonNode items = join(page);
+            return items == null ? GitHubRest.MAPPER.createArrayNode() : items;
+        }
+
+        private void fill() {
+            while (inFlight.size() < prefetchPages && requested != last) {
+                requested += step;
+                String pagePath = path + requested;
+                inFlight.add(async(() -> rest.get(pagePath)));
+            }
+        }
+    }
+
+    private String commentPath(long commentId) {
+        return "/repos/" + specRepo.getFullName() + "/issues/comments/" + commentId;
+    }
+
+    /**
+     * Wait for a call made with {@link #async}
+     * @return its result
+     * @throws IOException - if the call failed with one
+     */
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> async(IOCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, ioExecutor);
+    }
+
+    /**
+     * A blocking API call
+     * @param <T> - the call result
+     */
+    interface IOCall<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * A comment fetched through the REST API, updated with a PATCH of the comment
+     */
+    class RestComment extends PullRequestData.Comment {
+        RestComment(JsonNode comment) {
+            // user is null for comments of deleted accounts
+            super(comment.path("id").asLong(), comment.path("node_id").asText(null),
+                  comment.path("user").path("login").asText(null), comment.path("body").asText(""));
+        }
+
+        @Override
+        void update(ReviewResults review) throws IOException {
+            rest.patch(commentPath(id), new ChecklistRequestBody(review));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package jakarta;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import okio.BufferedSink;
+import okio.Okio;
+
+import jakarta.PRTests.CheckboxItem;
+import jakarta.PRTests.CheckboxItemRecord;
+
+import static jakarta.PRTests.ERROR;
+import static jakarta.PRTests.OK;
+import static jakarta.PRTests.QUESITON;
+
+/**
+ * The per-PR hot paths of a review: parsing the PR body, classifying the PR files and rendering the checklist and
+ * writing the comment update request body, against the implementations they replaced. The inputs are synthetic PRs
+ * with 10 to 20,000 entries, body lines or changed files. The body is the filled PR template followed by pasted log
+ * lines. The files are those of a spec release PR, mostly generated apidocs, with a few spec documents and stray
+ * files. All benchmarks, with JSON results in target/jmh-result.json, run with
+ *
+ * mvn -Pbench test
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReviewBenchmark {
+    @Param({"10", "100", "1000", "20000"})
+    int entries;
+
+    String body;
+    List<String> files;
+    List<CheckboxItemRecord> items;
+    SpecFiles specFiles;
+    LinkCheckResult ok;
+    ReviewResults review;
+
+    @Setup
+    public void setup() throws IOException {
+        body = body(entries);
+        files = files(entries);
+        items = CheckboxParser.parse(Files.readString(Path.of("src/test/resources/pr-bodies/template-filled.md"),
+                                                      StandardCharsets.UTF_8));
+        specFiles = SpecFiles.classify(files);
+        ok = new LinkCheckResult("https://jakarta.oss.sonatype.org/", LinkCheckResult.Status.OK, 200, 1024, 5, null);
+        review = ReviewResults.evaluate(items, specFiles, ok, ok);
+    }
+
+    /**
+     * @param lines - number of body lines
+     * @return the filled PR template followed by log lines
+     */
+    static String body(int lines) throws IOException {
+        List<String> template = Files.readAllLines(Path.of("src/test/resources/pr-bodies/template-filled.md"),
+                                                   StandardCharsets.UTF_8);
+        StringBuilder body = new StringBuilder();
+        for (int n = 0; n < lines; n++) {
+            body.append(n < template.size() ? template.get(n)
+                        : "[INFO] Tests run: " + n + ", Failures: 0, Errors: 0, Skipped: 0, Time elapsed: 1.23 s").append('\n');
+        }
+        return body.toString();
+    }
+
+    /**
+     * @param count - number of files
+     * @return the files of a spec release PR, 1 in 20 a spec document, 1 in 50 a stray file, the rest apidocs
+     */
+    static List<String> files(int count) {
+        ArrayList<String> files = new ArrayList<>(count);
+        files.add("coreprofile/10/jakarta-coreprofile-spec-10.pdf");
+        files.add("coreprofile/10/jakarta-coreprofile-spec-10.html");
+        for (int n = files.size(); n < count; n++) {
+            if (n % 20 == 0) {
+                files.add("coreprofile/10/images/figure-" + n + ".png");
+            } else if (n % 50 == 1) {
+                files.add("README-" + n + ".md");
+            } else {
+                files.add("coreprofile/10/apidocs/jakarta.coreprofile/jakarta/package" + n % 40 + "/Class" + n + ".html");
+            }
+        }
+        return files.subList(0, count);
+    }
+
+    @Benchmark
+    public List<CheckboxItemRecord> parse() {
+        return CheckboxParser.parse(body);
+    }
+
+    @Benchmark
+    public SpecFiles classify() {
+        return SpecFiles.classify(files);
+    }
+
+    @Benchmark
+    public String render() {
+        return ReviewRenderer.render(ReviewResults.evaluate(items, specFiles, ok, ok));
+    }
+
+    @Benchmark
+    public long patchBody() throws IOException {
+        BufferedSink sink = Okio.buffer(Okio.blackhole());
+        ChecklistRequestBody patch = new ChecklistRequestBody(review);
+        patch.writeTo(sink);
+        sink.flush();
+        return patch.contentLength();
+    }
+
+    /**
+     * The comment update body before {@link ChecklistRequestBody}: the review String, the comment body String and the
+     * JSON bytes
+     */
+    @Benchmark
+    public long patchBodyCopied() throws IOException {
+        String body = ChecklistComment.body(ReviewRenderer.render(review));
+        return GitHubRest.MAPPER.writeValueAsBytes(GitHubRest.MAPPER.createObjectNode().put("body", body)).length;
+    }
+
+    @Benchmark
+    public String concatenation() {
+        return concatenation(items, specFiles, ok, ok);
+    }
+
+    /**
+     * The rendering before {@link ReviewRenderer}, concatenating the review line by line
+     */
+    static String concatenation(List<CheckboxItemRecord> prCheckboxItems, SpecFiles files, LinkCheckResult apiRepoResult,
+                                LinkCheckResult tckResult) {
+        CheckboxItemRecord apiRepo = prCheckboxItems.get(CheckboxItem.API_STAGE_REPO.ordinal());
+        CheckboxItemRecord tckRepo = prCheckboxItems.get(CheckboxItem.TCK_STAGE_URL.ordinal());
+        String specPdf = files.specPdf();
+        String specHtml = files.specHtml();
+        String review = "Hello, I'm here to help you checking this pull request for __" + files.specName + "__, version __" + files.specVersion + "__\n\n";
+
+        review += "1. Spec PR\n";
+        //  - [ ] PR uses [template](https://github.com/jakartaee/specifications/blob/master/pull_request_template.md)
+        if(prCheckboxItems.size() == CheckboxItem.values().length-1) {
+            review += OK + "PR uses [template](https://github.com/jakartaee/specifications/blob/master/pull_request_template.md)\n";
+        } else {
+            review += ERROR + "PR uses [template](https://github.com/jakartaee/specifications/blob/master/pull_request_template.md)\n";
+        }
+        // Directory of form {spec}/x.y
+        if(!files.specName.equals("undefined") && !files.specVersion.equals("undefined")) {
+            review += OK + "Directory of form {spec}/x.y\n";
+        } else {
+            review += ERROR + "Directory of form {spec}/x.y\n";
+        }
+        // PDF of form jakarta-{spec}-spec-x.y.pdf ("-spec" preferred but not required
+        String test = "jakarta-%s-spec-%s.pdf".formatted(files.specName, files.specVersion);
+        String test2 = "jakarta-%s-%s.pdf".formatted(files.specName, files.specVersion);
+        if(specPdf == null || (!specPdf.equals(test) && !specPdf.equals(test2))) {
+            review += ERROR + "PDF of form jakarta-{spec}-spec-x.y.pdf ('-spec' preferred but not required\n";
+        } else {
+            review += OK + "PDF of form jakarta-{spec}-spec-x.y.pdf ('-spec' preferred but not required\n";
+        }
+        // HTML of form jakarta-{spec}-spec-x.y.html ("-spec" preferred but not required)
+        test = "jakarta-%s-spec-%s.html".formatted(files.specName, files.specVersion);
+        test2 = "jakarta-%s-%s.html".formatted(files.specName, files.specVersion);
+        if(specHtml == null || (!specHtml.equals(test) && !specHtml.equals(test2))) {
+            review += ERROR + "HTML of form jakarta-{spec}-spec-x.y.html ('-spec' preferred but not required\n";
+        } else {
+            review += OK + " HTML of form jakarta-{spec}-spec-x.y.html ('-spec' preferred but not required\n";
+        }
+
+        //- [ ] Index page {spec}/x.y/_index.md following [template](https://github.com/jakartaee/specification-committee/blob/master/spec_page_template.md)
+        review += QUESITON + "Index page {spec}/x.y/_index.md following [template](https://github.com/jakartaee/specification-committee/blob/master/spec_page_template.md)\n";
+        //- [ ] Index page {spec}/_index.md following [template](https://github.com/jakartaee/specification-committee/blob/master/spec_index_template.md)
+        review += QUESITON + "Index page {spec}/_index.md following [template](https://github.com/jakartaee/specification-committee/blob/master/spec_index_template.md)\n";
+        //- [ ] No other files (e.g., no jakarta_ee_logo_schooner_color_stacked_default.png)
+        if(files.otherFiles.size() == 0) {
+            review += OK + "No other files\n";
+        } else {
+            review += ERROR + "No other files\n"+files.otherFiles+"\n";
+        }
+        //- [ ] Staging repository link of the form https://jakarta.oss.sonatype.org/content/repositories/staging/jakarta/{spec}/jakarta.{spec}-api/x.y.z/
+        if(apiRepo == null || apiRepo.value.length() == 0) {
+            review += ERROR + "Staging repository link of the form https://jakarta.oss.sonatype.org/content/repositories/staging/jakarta/{spec}/jakarta.{spec}-api/x.y.z/\n";
+        } else {
+            if(apiRepoResult.ok()) {
+                review += OK + "Staging repository link of the form https://jakarta.oss.sonatype.org/content/repositories/staging/jakarta/{spec}/jakarta.{spec}-api/x.y.z/\n";
+            } else {
+                review += ERROR + "Staging repository link of the form https://jakarta.oss.sonatype.org/content/repositories/staging/jakarta/{spec}/jakarta.{spec}-api/x.y.z/\n";
+                review += "\t"+ReviewRenderer.linkFailure(apiRepoResult)+"\n";
+            }
+        }
+        //- [ ] EFTL TCK link of the form http://download.eclipse.org/.../+.zip
+        if(tckRepo == null || tckRepo.value.length() == 0) {
+            review += ERROR + "EFTL TCK link of the form http://download.eclipse.org/.../+.zip\n";
+        } else {
+            String url = tckRepo.value.trim();
+            if(!url.startsWith("http://download.eclipse.org/")) {
+                review += ERROR + "EFTL TCK link of the form http://download.eclipse.org/.../+.zip\n";
+                review += "\t"+url+" not under http://download.eclipse.org/\n";
+            }
+            if(tckResult.ok()) {
+                review += OK + "EFTL TCK link of the form http://download.eclipse.org/.../+.zip\n";
+            } else {
+                review += ERROR + "EFTL TCK link of the form http://download.eclipse.org/.../+.zip\n";
+                review += "\t"+ReviewRenderer.linkFailure(tckResult)+"\n";
+            }
+        }
+
+        //- [ ] Compatibility certification link of the form https://github.com/eclipse-ee4j/{project}/#{issue}
+        CheckboxItemRecord ccrIssue = prCheckboxItems.get(CheckboxItem.CCR_URL.ordinal());
+        if(ccrIssue == null || ccrIssue.value.length() == 0) {
+            review += ERROR + "Compatibility certification link of the form https://github.com/eclipse-ee4j/{project}/#{issue}\n";
+        } else {
+            review += QUESITON + "Compatibility certification link of the form https://github.com/eclipse-ee4j/{project}/#{issue}\n";
+        }
+        //- [ ] (Optional) Second PR for just apidocs
+        review += QUESITON + "(Optional) Second PR for just apidocs\n";
+        return review;
+    }
+}
+
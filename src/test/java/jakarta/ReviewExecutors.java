@@ -0,0 +1,72 @@
+package jakarta;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory for the executors the review pipeline runs on. Every step of a review blocks on I/O, so on a Java 21+
+ * runtime reviews and their blocking sub-calls each get a virtual thread. On Java 17 reviews run on a fixed pool of
+ * platform threads and sub-calls on a cached pool, so a review waiting on its sub-calls can never starve them.
+ *
+ * Set the review.threads system property to platform or virtual to override the choice.
+ */
+final class ReviewExecutors {
+    /** Executors.newVirtualThreadPerTaskExecutor() when running on Java 21+, null otherwise */
+    private static final MethodHandle NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+    private ReviewExecutors() {}
+
+    /**
+     * @return true if reviews will run on virtual threads
+     */
+    static boolean useVirtualThreads() {
+        String threads = System.getProperty("review.threads", "virtual");
+        return NEW_VIRTUAL_EXECUTOR != null && threads.equals("virtual");
+    }
+
+    /**
+     * Create the executor whole PR reviews are submitted to. With virtual threads the pool is unbounded and callers
+     * limit concurrency themselves.
+     *
+     * @param concurrency - size of the platform thread pool
+     * @return a new executor service
+     */
+    static ExecutorService newReviewExecutor(int concurrency) {
+        return useVirtualThreads() ? newVirtualThreadExecutor() : Executors.newFixedThreadPool(concurrency);
+    }
+
+    /**
+     * Create the executor the blocking sub-calls of a review (API fetches, URL probes) are submitted to
+     * @return a new executor service
+     */
+    static ExecutorService newIoExecutor() {
+        if (useVirtualThreads()) {
+            return newVirtualThreadExecutor();
+        }
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "review-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    private static MethodHandle findVirtualExecutorFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                                                           MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
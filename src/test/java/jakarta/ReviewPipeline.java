@@ -0,0 +1,242 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+
+import jakarta.PRTests.CheckboxItem;
+import jakarta.PRTests.CheckboxItemRecord;
+
+import static jakarta.PRTests.parseCheckboxItems;
+
+/**
+ * The spec review checklist pipeline for the PRs of a single repository. One instance shares its {@link GitHub}
+ * client across every PR it reviews, so batch runs pay for client construction and connection setup once.
+ * Blocking sub-calls of a review run on the shared executor from {@link ReviewExecutors#newIoExecutor()}. The
+ * review.linkTimeout and review.linkDeadline system properties set the per-request and overall link check limits in ms.
+ * Link check results are cached under the review.cacheDir directory (default .review-cache) for review.linkCacheTtl ms
+ * (default 1 hour), or review.linkCacheNegativeTtl ms (default 5 minutes) for failures. The id of each PR's checklist
+ * comment is kept in the same directory, so later reviews fetch that comment instead of scanning all comments.
+ * Reviews log the number of spec and javadoc files, and with review.listFiles=true the files themselves.
+ */
+class ReviewPipeline implements AutoCloseable {
+    /** Directory of the review state, link check and HTTP response caches */
+    static final Path CACHE_DIR = Path.of(System.getProperty("review.cacheDir", ".review-cache"));
+
+    final GitHub github;
+    final GHRepository specRepo;
+    final ExecutorService ioExecutor = ReviewExecutors.newIoExecutor();
+    PullRequestFetcher fetcher;
+    final LinkCheckCache linkCache = new LinkCheckCache(CACHE_DIR.resolve("link-checks.json"),
+                                                        Duration.ofMillis(Long.getLong("review.linkCacheTtl", 3_600_000)),
+                                                        Duration.ofMillis(Long.getLong("review.linkCacheNegativeTtl", 300_000)))
+        .load();
+    final ReviewState state = new ReviewState(CACHE_DIR.resolve("review-state.json")).load();
+    final AtomicLong commentWrites = new AtomicLong();
+    final AtomicLong commentWritesSkipped = new AtomicLong();
+    final LinkChecker linkChecker = new LinkChecker(Duration.ofMillis(Long.getLong("review.linkTimeout", 10_000)),
+                                                    Duration.ofMillis(Long.getLong("review.linkDeadline", 30_000)),
+                                                    ioExecutor, linkCache);
+
+    ReviewPipeline(GitHub github, GHRepository specRepo, GitHubRest rest) {
+        this.github = github;
+        this.specRepo = specRepo;
+        this.fetcher = new RestPullRequestFetcher(github, specRepo, rest, ioExecutor);
+    }
+
+    /**
+     * @return statistics of the run so far
+     */
+    String summary() {
+        return "+++ Run summary, " + linkCache.summary() + ", coalesced link probes: " + linkChecker.coalesced.get()
+               + ", checklist writes: " + commentWrites.get() + " performed, " + commentWritesSkipped.get() + " skipped";
+    }
+
+    @Override
+    public void close() {
+        ioExecutor.shutdownNow();
+        try {
+            linkCache.save();
+            state.save();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save link check cache or review state", e);
+        }
+    }
+
+    /**
+     * Review every open PR of the repository, running at most concurrency reviews at once. A failure of one
+     * review is reported and does not stop the others.
+     *
+     * @param concurrency - maximum number of PRs reviewed at the same time
+     * @return the number of reviews that failed
+     * @throws IOException - if the open PRs cannot be listed
+     * @throws InterruptedException - if interrupted while waiting for the reviews
+     */
+    int reviewOpenPullRequests(int concurrency) throws IOException, InterruptedException {
+        List<GHPullRequest> openPRs = specRepo.queryPullRequests().state(GHIssueState.OPEN).list().withPageSize(100).toList();
+        System.out.printf("+++ Reviewing %d open PRs of %s, concurrency=%d, virtual threads=%s\n", openPRs.size(),
+                          specRepo.getFullName(), concurrency, ReviewExecutors.useVirtualThreads());
+
+        long start = System.nanoTime();
+        // A virtual thread executor is unbounded, so the permits are what enforce the concurrency limit
+        Semaphore permits = new Semaphore(concurrency);
+        ExecutorService executor = ReviewExecutors.newReviewExecutor(concurrency);
+        ArrayList<Future<?>> reviews = new ArrayList<>();
+        try {
+            for (GHPullRequest pr : openPRs) {
+                reviews.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        review(pr.getNumber());
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            int failed = 0;
+            for (int n = 0; n < reviews.size(); n++) {
+                try {
+                    reviews.get(n).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    System.out.printf("--- Review of PR#%d failed: %s\n", openPRs.get(n).getNumber(), e.getCause());
+                }
+            }
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("+++ Reviewed %d PRs in %d ms, failed: %d\n", openPRs.size(), elapsed, failed);
+            return failed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Fetch the given PR and review it
+     * @param prNumber - the PR number in the repository
+     * @throws IOException - on failure
+     */
+    void review(int prNumber) throws IOException {
+        review(fetcher.fetch(prNumber, state.checklistComment(specRepo.getFullName(), prNumber)));
+    }
+
+    /**
+     * Review the PR of a pull_request webhook payload, fetching only what the payload lacks
+     * @param pullRequest - the PR as read from the payload
+     * @throws IOException - on failure
+     */
+    void reviewEvent(PullRequestData pullRequest) throws IOException {
+        review(fetcher.fetch(pullRequest, state.checklistComment(specRepo.getFullName(), pullRequest.number)));
+    }
+
+    /**
+     * Check the PR against the spec review checklist and update the assignee's checklist comment
+     * @param pr - the fetched PR to review
+     * @throws IOException - on failure
+     */
+    void review(PullRequestData pr) throws IOException {
+        System.out.printf("PR#%d(%s), changed files: %d, review comments: %d, url=%s\n", pr.number, pr.title,
+                          pr.changedFiles, pr.reviewComments, pr.url);
+        String body = pr.body;
+        System.out.printf("body: %s\n", body);
+
+        List<CheckboxItemRecord> prCheckboxItems = parseCheckboxItems(body);
+        System.out.printf("Parsed(%d) items\n%s\n", prCheckboxItems.size(), prCheckboxItems);
+
+        // Start the staging and TCK URL probes now so they overlap with the file classification
+        // A body that does not follow the template may end before them
+        CheckboxItemRecord apiRepo = ReviewResults.item(prCheckboxItems, CheckboxItem.API_STAGE_REPO);
+        CheckboxItemRecord tckRepo = ReviewResults.item(prCheckboxItems, CheckboxItem.TCK_STAGE_URL);
+        ArrayList<String> urls = new ArrayList<>();
+        for (CheckboxItemRecord item : Arrays.asList(apiRepo, tckRepo)) {
+            if(item != null && item.value.length() > 0) {
+                urls.add(item.value.trim());
+            }
+        }
+        Map<String, CompletableFuture<LinkCheckResult>> linkChecks = linkChecker.checkAll(urls);
+
+        // The fetcher separated the PR files into spec, javadoc and other files
+        SpecFiles files = pr.files;
+        if (files.specCount == 0) {
+            //cannot determine...
+            System.out.println("No spec changes found");
+        }
+        System.out.println("specification name: " + files.specName);
+        System.out.println("specification version: " + files.specVersion);
+        System.out.println("");
+
+
+        System.out.printf("SpecFiles: %d\n", files.specCount);
+        if (files.specFiles != null) {
+            files.specFiles.forEach(System.out::println);
+        }
+        System.out.println("");
+
+        System.out.printf("JavadocFiles: %d\n", files.javadocCount);
+        if (files.javadocFiles != null) {
+            files.javadocFiles.forEach(System.out::println);
+        }
+        System.out.println("");
+
+        System.out.printf("RemainingFiles: %d\n", files.otherFiles.size());
+        files.otherFiles.forEach(System.out::println);
+        System.out.println("");
+
+        System.out.printf("PDF-test: %s\n", "jakarta-%s-spec-%s.pdf".formatted(files.specName, files.specVersion));
+        System.out.printf("HTML-test: %s\n", "jakarta-%s-spec-%s.html".formatted(files.specName, files.specVersion));
+        LinkCheckResult apiRepoResult = null;
+        if (apiRepo != null && apiRepo.value.length() > 0) {
+            apiRepoResult = linkChecks.get(apiRepo.value.trim()).join();
+            System.out.println(apiRepoResult);
+        }
+        LinkCheckResult tckResult = null;
+        if (tckRepo != null && tckRepo.value.length() > 0) {
+            tckResult = linkChecks.get(tckRepo.value.trim()).join();
+            System.out.println(tckResult);
+        }
+        ReviewResults review = ReviewResults.evaluate(prCheckboxItems, files, apiRepoResult, tckResult);
+
+        // The comment from the assigned user that starts with # Spec Review Checklist
+        if(pr.checklist == null) {
+            System.out.printf("--- No spec review checklist comment by assignee %s\n", pr.assignee);
+            return;
+        }
+        state.checklistComment(specRepo.getFullName(), pr.number, pr.checklist);
+        updateChecklist(pr.checklist, review);
+    }
+
+    /**
+     * Write the review to the checklist comment, unless the comment already holds it. Skipping identical writes
+     * saves against GitHub's content creation limit and avoids notification webhooks.
+     *
+     * @param comment - the assignee's checklist comment
+     * @param review - the checks of the PR
+     * @throws IOException - on failure
+     */
+    void updateChecklist(PullRequestData.Comment comment, ReviewResults review) throws IOException {
+        if(ChecklistComment.isUnchanged(comment.body, ChecklistComment.hash(review))) {
+            System.out.printf("+++ Spec review checklist is up to date\n");
+            commentWritesSkipped.incrementAndGet();
+            return;
+        }
+        System.out.printf("+++ Updating spec review checklist...\n");
+        comment.update(review);
+        commentWrites.incrementAndGet();
+    }
+}
@@ -0,0 +1,186 @@
+package jakarta;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Debouncing queue of PR reviews. A push to a PR arrives as a burst of events (synchronize, several edited, check
+ * events) within seconds, and every one of them would review the PR and possibly rewrite its checklist comment. The
+ * queue collapses the events of a PR into one review that starts once no event for it has arrived for the quiet
+ * window, or at the latest the maximum delay after the first one, so a steady stream of events cannot postpone the
+ * review forever.
+ *
+ * A PR is never reviewed twice at the same time: events arriving while its review runs are held back and trigger a
+ * single follow-up review after it, once they are quiet. Reviews of different PRs run concurrently up to the given
+ * limit.
+ */
+class ReviewQueue implements AutoCloseable {
+    final long quietNanos;
+    final long maxDelayNanos;
+    final AtomicLong events = new AtomicLong();
+    final AtomicLong reviews = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+    private final Review review;
+    private final Map<Integer, Slot> slots = new HashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "review-queue");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService reviewExecutor;
+    /** A virtual thread executor is unbounded, so the permits are what enforce the concurrency limit */
+    private final Semaphore permits;
+    private boolean closed;
+
+    /**
+     * @param review - the review of a PR
+     * @param quietMillis - time without events for a PR before it is reviewed
+     * @param maxDelayMillis - maximum time from the first event for a PR to the start of its review
+     * @param concurrency - maximum number of PRs reviewed at the same time
+     */
+    ReviewQueue(Review review, long quietMillis, long maxDelayMillis, int concurrency) {
+        this.review = review;
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(quietMillis, maxDelayMillis));
+        this.reviewExecutor = ReviewExecutors.newReviewExecutor(concurrency);
+        this.permits = new Semaphore(concurrency);
+    }
+
+    /**
+     * The events for a PR waiting for its review, and whether the review is running
+     */
+    private static class Slot {
+        long firstEvent;
+        long lastEvent;
+        boolean pending;
+        boolean running;
+        /** Incremented on every reschedule, so a timer that fired while being rescheduled does nothing */
+        int generation;
+        ScheduledFuture<?> timer;
+    }
+
+    /**
+     * Record an event for a PR, scheduling its review
+     * @param prNumber - the PR number in the repository
+     */
+    synchronized void submit(int prNumber) {
+        if (closed) {
+            throw new IllegalStateException("Review queue is closed");
+        }
+        events.incrementAndGet();
+        long now = System.nanoTime();
+        Slot slot = slots.computeIfAbsent(prNumber, n -> new Slot());
+        if (!slot.pending) {
+            slot.pending = true;
+            slot.firstEvent = now;
+        }
+        slot.lastEvent = now;
+        if (!slot.running) {
+            schedule(prNumber, slot, now);
+        }
+    }
+
+    /**
+     * @return statistics of the queue so far
+     */
+    String summary() {
+        long started = reviews.get();
+        return "review queue: " + events.get() + " events, " + started + " reviews, " + (events.get() - started)
+               + " coalesced, " + failed.get() + " failed";
+    }
+
+    /**
+     * Start the reviews still waiting for their quiet window and give them and the running ones 30 seconds to finish.
+     * Events arriving for a PR while it is reviewed are dropped from now on.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            slots.forEach((prNumber, slot) -> {
+                if (slot.pending && !slot.running) {
+                    slot.timer.cancel(false);
+                    slot.generation++;
+                    start(prNumber, slot);
+                }
+            });
+        }
+        timer.shutdownNow();
+        reviewExecutor.shutdown();
+        try {
+            if (!reviewExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                reviewExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            reviewExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void schedule(int prNumber, Slot slot, long now) {
+        if (slot.timer != null) {
+            slot.timer.cancel(false);
+        }
+        int generation = ++slot.generation;
+        long due = Math.min(slot.lastEvent + quietNanos, slot.firstEvent + maxDelayNanos);
+        slot.timer = timer.schedule(() -> fire(prNumber, slot, generation), Math.max(0, due - now),
+                                    TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void fire(int prNumber, Slot slot, int generation) {
+        if (generation == slot.generation && !closed) {
+            start(prNumber, slot);
+        }
+    }
+
+    private void start(int prNumber, Slot slot) {
+        slot.pending = false;
+        slot.running = true;
+        slot.timer = null;
+        reviews.incrementAndGet();
+        reviewExecutor.execute(() -> {
+            try {
+                permits.acquire();
+                try {
+                    review.review(prNumber);
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                System.out.printf("--- Review of PR#%d failed: %s\n", prNumber, e);
+            } finally {
+                finished(prNumber, slot);
+            }
+        });
+    }
+
+    private synchronized void finished(int prNumber, Slot slot) {
+        slot.running = false;
+        if (!slot.pending) {
+            slots.remove(prNumber);
+        } else if (closed) {
+            System.out.printf("--- Dropped events for PR#%d that arrived during its review at shutdown\n", prNumber);
+            slots.remove(prNumber);
+        } else {
+            schedule(prNumber, slot, System.nanoTime());
+        }
+    }
+
+    /**
+     * The review of a PR
+     */
+    interface Review {
+        void review(int prNumber) throws IOException;
+    }
+}
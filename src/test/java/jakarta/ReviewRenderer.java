@@ -0,0 +1,206 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static jakarta.PRTests.ERROR;
+import static jakarta.PRTests.OK;
+import static jakarta.PRTests.QUESITON;
+
+/**
+ * Renders {@link ReviewResults} as the markdown of the spec review checklist comment. Every line text is defined once
+ * below, and the review is appended line by line to a single {@link Appendable}. {@link #render(ReviewResults)} sizes
+ * its StringBuilder from the results up front, so rendering allocates the builder and the final String only. Sinks
+ * that encode the review, such as {@link ChecklistRequestBody}, recognize the {@link #FRAGMENTS} by identity and
+ * write them pre-encoded.
+ */
+final class ReviewRenderer {
+    static final String GREETING = "Hello, I'm here to help you checking this pull request for __";
+    static final String GREETING_VERSION = "__, version __";
+    static final String GREETING_END = "__\n\n";
+    static final String SPEC_PR = "1. Spec PR\n";
+    //  - [ ] PR uses [template](https://github.com/jakartaee/specifications/blob/master/pull_request_template.md)
+    static final String TEMPLATE = "PR uses [template](https://github.com/jakartaee/specifications/blob/master/pull_request_template.md)\n";
+    // Directory of form {spec}/x.y
+    static final String DIRECTORY = "Directory of form {spec}/x.y\n";
+    // PDF of form jakarta-{spec}-spec-x.y.pdf ("-spec" preferred but not required
+    static final String PDF = "PDF of form jakarta-{spec}-spec-x.y.pdf ('-spec' preferred but not required\n";
+    // HTML of form jakarta-{spec}-spec-x.y.html ("-spec" preferred but not required)
+    static final String HTML = "HTML of form jakarta-{spec}-spec-x.y.html ('-spec' preferred but not required\n";
+    //- [ ] Index page {spec}/x.y/_index.md following [template](https://github.com/jakartaee/specification-committee/blob/master/spec_page_template.md)
+    static final String VERSION_INDEX = "Index page {spec}/x.y/_index.md following [template](https://github.com/jakartaee/specification-committee/blob/master/spec_page_template.md)\n";
+    //- [ ] Index page {spec}/_index.md following [template](https://github.com/jakartaee/specification-committee/blob/master/spec_index_template.md)
+    static final String SPEC_INDEX = "Index page {spec}/_index.md following [template](https://github.com/jakartaee/specification-committee/blob/master/spec_index_template.md)\n";
+    //- [ ] No other files (e.g., no jakarta_ee_logo_schooner_color_stacked_default.png)
+    static final String NO_OTHER_FILES = "No other files\n";
+    //- [ ] Staging repository link of the form https://jakarta.oss.sonatype.org/content/repositories/staging/jakarta/{spec}/jakarta.{spec}-api/x.y.z/
+    static final String STAGING_REPOSITORY = "Staging repository link of the form https://jakarta.oss.sonatype.org/content/repositories/staging/jakarta/{spec}/jakarta.{spec}-api/x.y.z/\n";
+    //- [ ] EFTL TCK link of the form http://download.eclipse.org/.../+.zip
+    static final String TCK = "EFTL TCK link of the form http://download.eclipse.org/.../+.zip\n";
+    static final String TCK_NOT_UNDER = " not under " + ReviewResults.TCK_URL_PREFIX + "\n";
+    //- [ ] Compatibility certification link of the form https://github.com/eclipse-ee4j/{project}/#{issue}
+    static final String CCR = "Compatibility certification link of the form https://github.com/eclipse-ee4j/{project}/#{issue}\n";
+    //- [ ] (Optional) Second PR for just apidocs
+    static final String SECOND_PR = "(Optional) Second PR for just apidocs\n";
+
+    /** Every fixed text the renderer appends, for sinks that encode them once up front */
+    static final List<String> FRAGMENTS = List.of(OK, ERROR, QUESITON, GREETING, GREETING_VERSION, GREETING_END,
+        SPEC_PR, TEMPLATE, DIRECTORY, PDF, HTML, VERSION_INDEX, SPEC_INDEX, NO_OTHER_FILES, STAGING_REPOSITORY, TCK,
+        TCK_NOT_UNDER, CCR, SECOND_PR);
+
+    /** Length of the fixed text of a review, taking the longest status prefix of every line */
+    static final int FIXED_LENGTH = GREETING.length() + GREETING_VERSION.length() + GREETING_END.length()
+        + SPEC_PR.length() + Math.max(OK.length(), ERROR.length()) * 9 + QUESITON.length() * 3 + 1
+        + TEMPLATE.length() + DIRECTORY.length() + PDF.length() + HTML.length() + VERSION_INDEX.length()
+        + SPEC_INDEX.length() + NO_OTHER_FILES.length() + STAGING_REPOSITORY.length() + TCK.length() * 2
+        + CCR.length() + SECOND_PR.length();
+    /** Upper bound of a link failure line besides its url */
+    static final int LINK_FAILURE_LENGTH = 64;
+
+    private ReviewRenderer() {}
+
+    /**
+     * @param results - the checks of a PR
+     * @return the review
+     */
+    static String render(ReviewResults results) {
+        StringBuilder review = new StringBuilder(capacity(results));
+        try {
+            render(results, review);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+        return review.toString();
+    }
+
+    /**
+     * Append the review to out
+     * @param results - the checks of a PR
+     * @param out - destination of the review
+     * @throws IOException - if out fails
+     */
+    static void render(ReviewResults results, Appendable out) throws IOException {
+        out.append(GREETING).append(results.specName).append(GREETING_VERSION).append(results.specVersion)
+            .append(GREETING_END);
+
+        out.append(SPEC_PR);
+        out.append(results.usesTemplate ? OK : ERROR).append(TEMPLATE);
+        out.append(results.directory ? OK : ERROR).append(DIRECTORY);
+        out.append(results.pdf ? OK : ERROR).append(PDF);
+        if (results.html) {
+            out.append(OK).append(' ').append(HTML);
+        } else {
+            out.append(ERROR).append(HTML);
+        }
+
+        out.append(QUESITON).append(VERSION_INDEX);
+        out.append(QUESITON).append(SPEC_INDEX);
+        if (results.otherFiles.isEmpty()) {
+            out.append(OK).append(NO_OTHER_FILES);
+        } else {
+            out.append(ERROR).append(NO_OTHER_FILES);
+            appendList(results.otherFiles, out);
+            out.append('\n');
+        }
+        if (results.apiRepo == null || results.apiRepo.ok()) {
+            out.append(results.apiRepo == null ? ERROR : OK).append(STAGING_REPOSITORY);
+        } else {
+            out.append(ERROR).append(STAGING_REPOSITORY).append('\t');
+            appendLinkFailure(results.apiRepo, out);
+            out.append('\n');
+        }
+        if (results.tckUrl == null) {
+            out.append(ERROR).append(TCK);
+        } else {
+            if (!results.tckUnderEclipse()) {
+                out.append(ERROR).append(TCK).append('\t').append(results.tckUrl).append(TCK_NOT_UNDER);
+            }
+            if (results.tck.ok()) {
+                out.append(OK).append(TCK);
+            } else {
+                out.append(ERROR).append(TCK).append('\t');
+                appendLinkFailure(results.tck, out);
+                out.append('\n');
+            }
+        }
+
+        out.append(results.ccr ? QUESITON : ERROR).append(CCR);
+        out.append(QUESITON).append(SECOND_PR);
+    }
+
+    /**
+     * @param results - the checks of a PR
+     * @return an upper bound of the length of the review, close to it
+     */
+    static int capacity(ReviewResults results) {
+        int capacity = FIXED_LENGTH + results.specName.length() + results.specVersion.length();
+        if (!results.otherFiles.isEmpty()) {
+            capacity += 2 + 2 * results.otherFiles.size();
+            for (String file : results.otherFiles) {
+                capacity += file.length();
+            }
+        }
+        if (results.apiRepo != null) {
+            capacity += LINK_FAILURE_LENGTH + results.apiRepo.url.length();
+        }
+        if (results.tckUrl != null) {
+            capacity += 1 + results.tckUrl.length() + TCK_NOT_UNDER.length() + LINK_FAILURE_LENGTH + results.tck.url.length();
+        }
+        return capacity;
+    }
+
+    /**
+     * Append a list the way {@link List#toString()} does, [a, b]
+     */
+    static void appendList(List<String> list, Appendable out) throws IOException {
+        out.append('[');
+        for (int n = 0; n < list.size(); n++) {
+            if (n > 0) {
+                out.append(", ");
+            }
+            out.append(list.get(n));
+        }
+        out.append(']');
+    }
+
+    /**
+     * Describe why a link check did not pass
+     * @param result - the failed link check
+     * @return one line description for the review comment
+     */
+    static String linkFailure(LinkCheckResult result) {
+        StringBuilder line = new StringBuilder(LINK_FAILURE_LENGTH + result.url.length());
+        try {
+            appendLinkFailure(result, line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return line.toString();
+    }
+
+    /**
+     * Append the description of why a link check did not pass
+     * @param result - the failed link check
+     * @param out - destination of the one line description
+     * @throws IOException - if out fails
+     */
+    static void appendLinkFailure(LinkCheckResult result, Appendable out) throws IOException {
+        switch (result.status) {
+            case EMPTY:
+                out.append("Content length was zero for: ").append(result.url);
+                break;
+            case HTTP_ERROR:
+                out.append("Failed to access URL: ").append(result.url).append(" (HTTP ")
+                    .append(Integer.toString(result.httpStatus)).append(')');
+                break;
+            case TIMEOUT:
+                out.append("Timed out after ").append(Long.toString(result.latencyMillis)).append("ms accessing URL: ")
+                    .append(result.url);
+                break;
+            default:
+                out.append("Failed to access URL: ").append(result.url);
+        }
+    }
+}
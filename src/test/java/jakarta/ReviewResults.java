@@ -0,0 +1,102 @@
+package jakarta;
+
+import java.util.List;
+
+import jakarta.PRTests.CheckboxItem;
+import jakarta.PRTests.CheckboxItemRecord;
+
+/**
+ * Outcome of the step 1, Spec PR, checks of
+ * https://raw.githubusercontent.com/jakartaee/specification-committee/master/spec_review_checklist.md
+ * for one PR, as rendered by {@link ReviewRenderer}
+ */
+class ReviewResults {
+    static final String TCK_URL_PREFIX = "http://download.eclipse.org/";
+
+    String specName;
+    String specVersion;
+    /** The PR body has one checkbox per item of the PR template */
+    boolean usesTemplate;
+    boolean directory;
+    /** The spec PDF is named jakarta-{spec}-spec-x.y.pdf or jakarta-{spec}-x.y.pdf */
+    boolean pdf;
+    /** The spec HTML is named jakarta-{spec}-spec-x.y.html or jakarta-{spec}-x.y.html */
+    boolean html;
+    List<String> otherFiles;
+    /** Check of the staging repository link, or null if the PR has none */
+    LinkCheckResult apiRepo;
+    /** The TCK link, or null if the PR has none */
+    String tckUrl;
+    /** Check of the TCK link, or null if the PR has none */
+    LinkCheckResult tck;
+    /** The PR has a compatibility certification link */
+    boolean ccr;
+
+    /**
+     * Run the checks. Items missing from a body that does not follow the template fail their checks.
+     * @param prCheckboxItems - the parsed PR body
+     * @param files - the classified PR files
+     * @param apiRepoResult - check of the staging repository link, or null if the PR has none
+     * @param tckResult - check of the TCK link, or null if the PR has none
+     * @return the results
+     */
+    static ReviewResults evaluate(List<CheckboxItemRecord> prCheckboxItems, SpecFiles files,
+                                  LinkCheckResult apiRepoResult, LinkCheckResult tckResult) {
+        ReviewResults results = new ReviewResults();
+        results.specName = files.specName;
+        results.specVersion = files.specVersion;
+        results.usesTemplate = prCheckboxItems.size() == CheckboxParser.ITEMS.length - 1;
+        results.directory = !files.specName.equals("undefined") && !files.specVersion.equals("undefined");
+        results.pdf = isSpecDocument(files.specPdf(), files.specName, files.specVersion, ".pdf");
+        results.html = isSpecDocument(files.specHtml(), files.specName, files.specVersion, ".html");
+        results.otherFiles = files.otherFiles;
+        CheckboxItemRecord apiRepo = item(prCheckboxItems, CheckboxItem.API_STAGE_REPO);
+        if (apiRepo != null && apiRepo.value.length() > 0) {
+            results.apiRepo = apiRepoResult;
+        }
+        CheckboxItemRecord tckRepo = item(prCheckboxItems, CheckboxItem.TCK_STAGE_URL);
+        if (tckRepo != null && tckRepo.value.length() > 0) {
+            results.tckUrl = tckRepo.value.trim();
+            results.tck = tckResult;
+        }
+        CheckboxItemRecord ccrIssue = item(prCheckboxItems, CheckboxItem.CCR_URL);
+        results.ccr = ccrIssue != null && ccrIssue.value.length() > 0;
+        return results;
+    }
+
+    /**
+     * @param prCheckboxItems - the parsed PR body
+     * @param item - the template item to look up
+     * @return the checkbox of the item, or null if the body has fewer checkboxes than the template
+     */
+    static CheckboxItemRecord item(List<CheckboxItemRecord> prCheckboxItems, CheckboxItem item) {
+        return item.ordinal() < prCheckboxItems.size() ? prCheckboxItems.get(item.ordinal()) : null;
+    }
+
+    /**
+     * @return true if the TCK link is under {@link #TCK_URL_PREFIX}
+     */
+    boolean tckUnderEclipse() {
+        return tckUrl.startsWith(TCK_URL_PREFIX);
+    }
+
+    /**
+     * Match fileName against jakarta-{name}-spec-{version}{extension} or jakarta-{name}-{version}{extension} without
+     * building either name
+     */
+    static boolean isSpecDocument(String fileName, String name, String version, String extension) {
+        if (fileName == null || !fileName.startsWith("jakarta-") || !fileName.endsWith(extension)
+            || !fileName.startsWith(name, 8) || fileName.length() <= 8 + name.length()
+            || fileName.charAt(8 + name.length()) != '-') {
+            return false;
+        }
+        int versionStart = 9 + name.length();
+        if (fileName.startsWith("spec-", versionStart)
+            && fileName.length() == versionStart + 5 + version.length() + extension.length()
+            && fileName.startsWith(version, versionStart + 5)) {
+            return true;
+        }
+        return fileName.length() == versionStart + version.length() + extension.length()
+               && fileName.startsWith(version, versionStart);
+    }
+}
@@ -0,0 +1,74 @@
+package jakarta;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+/**
+ * Local store of the checklist comment of each reviewed PR, so a review can fetch that comment directly instead of
+ * scanning every comment of the PR. Entries are keyed by repository/name#number and saved as JSON.
+ */
+class ReviewState {
+    /**
+     * The checklist comment of a PR, by REST id and GraphQL node id
+     */
+    public static class Entry {
+        public long commentId;
+        public String commentNodeId;
+    }
+
+    final Path file;
+    final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param file - the JSON file the state is loaded from and saved to
+     */
+    ReviewState(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Load the state saved by a previous run, if any. An unreadable state file is ignored.
+     * @return this state
+     */
+    ReviewState load() {
+        Map<String, Entry> saved = JsonFiles.load(file, new TypeReference<Map<String, Entry>>() {}, "review state");
+        if (saved != null) {
+            entries.putAll(saved);
+        }
+        return this;
+    }
+
+    /**
+     * Write all entries to the state file, replacing it atomically
+     * @throws IOException - on failure
+     */
+    void save() throws IOException {
+        JsonFiles.save(file, entries);
+    }
+
+    /**
+     * @param repository - repository in the form of owner/repository-name
+     * @param prNumber - the PR number
+     * @return the remembered checklist comment of the PR, or null
+     */
+    Entry checklistComment(String repository, int prNumber) {
+        return entries.get(repository + "#" + prNumber);
+    }
+
+    /**
+     * Remember the checklist comment of a PR
+     * @param repository - repository in the form of owner/repository-name
+     * @param prNumber - the PR number
+     * @param comment - the checklist comment
+     */
+    void checklistComment(String repository, int prNumber, PullRequestData.Comment comment) {
+        Entry entry = new Entry();
+        entry.commentId = comment.id;
+        entry.commentNodeId = comment.nodeId;
+        entries.put(repository + "#" + prNumber, entry);
+    }
+}
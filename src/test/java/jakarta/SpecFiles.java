@@ -0,0 +1,103 @@
+package jakarta;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The files of a spec PR separated into spec, javadoc and other files, with the spec name and version taken from the
+ * spec directory, e.g. coreprofile/10/jakarta-coreprofile-spec-10.html. Files are added one at a time as the pages of
+ * the PR's file list arrive, and only what the review needs is kept: the counts, the first spec file, the spec PDF and
+ * HTML names and the other files, which the review lists. The spec and javadoc file lists, which run to thousands of
+ * entries on javadoc PRs, are only kept when the review.listFiles system property is true, for reporting.
+ */
+class SpecFiles {
+    /** Keep the spec and javadoc file lists of every PR */
+    static final boolean LIST_FILES = Boolean.getBoolean("review.listFiles");
+
+    /** Spec files, or null unless the lists are kept */
+    final ArrayList<String> specFiles;
+    /** Javadoc files, or null unless the lists are kept */
+    final ArrayList<String> javadocFiles;
+    final ArrayList<String> otherFiles = new ArrayList<>();
+    int specCount;
+    int javadocCount;
+    /** Path of the last spec PDF, or null */
+    String specPdfPath;
+    /** Path of the last spec HTML, or null */
+    String specHtmlPath;
+    String specName = "unknown";
+    String specVersion = "unknown";
+
+    SpecFiles() {
+        this(LIST_FILES);
+    }
+
+    /**
+     * @param keepLists - true to keep the spec and javadoc file lists
+     */
+    SpecFiles(boolean keepLists) {
+        specFiles = keepLists ? new ArrayList<>() : null;
+        javadocFiles = keepLists ? new ArrayList<>() : null;
+    }
+
+    /**
+     * Separate the PR files into spec, javadoc and other files, keeping all lists
+     * @param files - paths of the files changed by the PR
+     * @return the classified files
+     */
+    static SpecFiles classify(List<String> files) {
+        SpecFiles classified = new SpecFiles(true);
+        for (String f : files) {
+            classified.add(f);
+        }
+        return classified;
+    }
+
+    /**
+     * Classify a file of the PR with {@link FileClassifier}
+     * @param f - path of the file
+     */
+    void add(String f) {
+        switch (FileClassifier.classify(f)) {
+            case FileClassifier.JAVADOC:
+                javadocCount++;
+                if (javadocFiles != null) {
+                    javadocFiles.add(f);
+                }
+                return;
+            case FileClassifier.SPEC_PDF:
+                specPdfPath = f;
+                break;
+            case FileClassifier.SPEC_HTML:
+                specHtmlPath = f;
+                break;
+            case FileClassifier.SPEC:
+                break;
+            default:
+                otherFiles.add(f);
+                return;
+        }
+        if (specCount++ == 0) {
+            String[] s = f.split("/");
+            specName = s[0];
+            specVersion = s[1];
+        }
+        if (specFiles != null) {
+            specFiles.add(f);
+        }
+    }
+
+    /**
+     * @return file name of the last spec PDF, or null
+     */
+    String specPdf() {
+        return specPdfPath == null ? null : specPdfPath.substring(specPdfPath.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * @return file name of the last spec HTML, or null
+     */
+    String specHtml() {
+        return specHtmlPath == null ? null : specHtmlPath.substring(specHtmlPath.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,266 @@
+package jakarta;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Record and replay of the GitHub REST and GraphQL traffic of a run, so a slow production review can be reproduced and the same
+ * captured run benchmarked across code versions. Both are OkHttp application interceptors, so they see every call of
+ * the github-api binding and {@link GitHubRest} as the review code makes it, above the response cache.
+ *
+ * The archive is a gzipped sequence of exchanges: start offset and duration in ms, method, url, request body, status,
+ * response headers and response body. Link checks do not go through OkHttp and are not recorded.
+ */
+final class TrafficArchive {
+    private TrafficArchive() {}
+
+    /**
+     * @return the body of a request, empty if it has none
+     */
+    static byte[] requestBody(Request request) throws IOException {
+        if (request.body() == null) {
+            return new byte[0];
+        }
+        Buffer buffer = new Buffer();
+        request.body().writeTo(buffer);
+        return buffer.readByteArray();
+    }
+
+    /**
+     * One recorded request and its response
+     */
+    static class Exchange {
+        long startMillis;
+        int durationMillis;
+        String method;
+        String url;
+        byte[] requestBody;
+        int status;
+        String message;
+        Headers headers;
+        byte[] body;
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(startMillis);
+            out.writeInt(durationMillis);
+            out.writeUTF(method);
+            out.writeUTF(url);
+            writeBytes(out, requestBody);
+            out.writeShort(status);
+            out.writeUTF(message);
+            out.writeShort(headers.size());
+            for (int n = 0; n < headers.size(); n++) {
+                out.writeUTF(headers.name(n));
+                out.writeUTF(headers.value(n));
+            }
+            writeBytes(out, body);
+        }
+
+        static Exchange read(DataInputStream in) throws IOException {
+            Exchange exchange = new Exchange();
+            exchange.startMillis = in.readLong();
+            exchange.durationMillis = in.readInt();
+            exchange.method = in.readUTF();
+            exchange.url = in.readUTF();
+            exchange.requestBody = readBytes(in);
+            exchange.status = in.readShort();
+            exchange.message = in.readUTF();
+            Headers.Builder headers = new Headers.Builder();
+            for (int n = in.readShort(); n > 0; n--) {
+                headers.add(in.readUTF(), in.readUTF());
+            }
+            exchange.headers = headers.build();
+            exchange.body = readBytes(in);
+            return exchange;
+        }
+
+        private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private static byte[] readBytes(DataInputStream in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * Writes every call that passes through it to an archive. Close it at the end of the run to complete the archive.
+     */
+    static class Recorder implements Interceptor, Closeable {
+        private final DataOutputStream out;
+        private final long start = System.currentTimeMillis();
+        private int count;
+
+        /**
+         * @param archive - the archive file, replaced if it exists
+         * @throws IOException - on failure
+         */
+        Recorder(Path archive) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(archive))));
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            long sent = System.currentTimeMillis();
+            Response response = chain.proceed(request);
+            // Read the whole body to time the complete exchange, and hand the caller a copy
+            byte[] body = response.body() == null ? new byte[0] : response.body().bytes();
+            Exchange exchange = new Exchange();
+            exchange.startMillis = sent - start;
+            exchange.durationMillis = (int) (System.currentTimeMillis() - sent);
+            exchange.method = request.method();
+            exchange.url = request.url().toString();
+            exchange.requestBody = requestBody(request);
+            exchange.status = response.code();
+            exchange.message = response.message();
+            exchange.headers = response.headers();
+            exchange.body = body;
+            synchronized (this) {
+                exchange.write(out);
+                count++;
+            }
+            MediaType type = response.body() == null ? null : response.body().contentType();
+            return response.newBuilder().body(ResponseBody.create(body, type)).build();
+        }
+
+        /**
+         * @return the number of exchanges recorded so far
+         */
+        synchronized int count() {
+            return count;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Answers calls from an archive without touching the network. Calls with the same method and url get the recorded
+     * responses in recorded order, the last one repeating once they are used up. POST calls, the GraphQL queries that
+     * all go to the same url, also need the same request body. A GraphQL mutation only needs the same query, as its
+     * variables carry the rendered review, which differs between runs. A call that was never recorded fails with an
+     * IOException.
+     */
+    static class Replayer implements Interceptor {
+        private final Map<String, ArrayDeque<Exchange>> exchanges = new HashMap<>();
+        private final boolean originalSpeed;
+        private int count;
+
+        /**
+         * @param archive - archive written by a {@link Recorder}
+         * @param originalSpeed - true to delay every response by its recorded duration, false to answer at once
+         * @throws IOException - if the archive cannot be read
+         */
+        Replayer(Path archive, boolean originalSpeed) throws IOException {
+            this.originalSpeed = originalSpeed;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(archive))))) {
+                while (true) {
+                    Exchange exchange;
+                    try {
+                        exchange = Exchange.read(in);
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    exchanges.computeIfAbsent(key(exchange.method, exchange.url, exchange.requestBody),
+                                              key -> new ArrayDeque<>()).add(exchange);
+                    count++;
+                }
+            }
+        }
+
+        /**
+         * @return the number of exchanges in the archive
+         */
+        int count() {
+            return count;
+        }
+
+        /**
+         * @return the REST API url the recorded run used, for the client replaying it, or null if unknown
+         */
+        String apiUrl() {
+            for (String key : exchanges.keySet()) {
+                int repos = key.indexOf("/repos/");
+                if (repos > 0 && key.startsWith("GET ")) {
+                    return key.substring(key.indexOf(' ') + 1, repos);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the key of the recorded responses of a call
+         */
+        private static String key(String method, String url, byte[] requestBody) throws IOException {
+            String key = method + " " + url;
+            if (!method.equals("POST")) {
+                return key;
+            }
+            String query = GitHubRest.MAPPER.readTree(requestBody).path("query").asText();
+            return key + " " + (query.startsWith("mutation") ? query : new String(requestBody, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            Exchange exchange;
+            synchronized (this) {
+                ArrayDeque<Exchange> recorded = exchanges.get(key(request.method(), request.url().toString(),
+                                                                  requestBody(request)));
+                if (recorded == null) {
+                    throw new IOException("No recorded response for " + request.method() + " " + request.url());
+                }
+                exchange = recorded.size() > 1 ? recorded.poll() : recorded.peek();
+            }
+            if (originalSpeed && exchange.durationMillis > 0) {
+                try {
+                    Thread.sleep(exchange.durationMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted replaying " + request.url());
+                }
+            }
+            String contentType = exchange.headers.get("Content-Type");
+            long now = System.currentTimeMillis();
+            return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(exchange.status)
+                .message(exchange.message)
+                .headers(exchange.headers)
+                .body(ResponseBody.create(exchange.body, contentType == null ? null : MediaType.parse(contentType)))
+                .sentRequestAtMillis(now - exchange.durationMillis)
+                .receivedResponseAtMillis(now)
+                .build();
+        }
+    }
+}
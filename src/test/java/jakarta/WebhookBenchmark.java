@@ -0,0 +1,182 @@
+package jakarta;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Signed pull_request deliveries per second on one thread, and allocation per delivery, of reading the fields a
+ * review needs with {@link WebhookPayload}, against buffering the body, computing its HMAC and parsing it into a tree.
+ * The payloads are shaped like GitHub's, with the head and base repositories, links and sender around the recorded
+ * fixture PR, whose body is padded to the given size. main runs with the GC profiler and takes the usual JMH command
+ * line options. With the bench profile the same measurement runs as
+ *
+ * mvn -Pbench test -Djmh.args="WebhookBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class WebhookBenchmark {
+    static final String SECRET = "webhook-secret";
+
+    /** Size of the PR body in KB */
+    @Param({"2", "256"})
+    int bodyKb;
+
+    byte[] payload;
+    String signature;
+    Mac prototype;
+
+    @Setup
+    public void setup() throws Exception {
+        payload = GitHubRest.MAPPER.writeValueAsBytes(payload(bodyKb));
+        prototype = Mac.getInstance("HmacSHA256");
+        prototype.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        signature = "sha256=" + HexFormat.of().formatHex(prototype.doFinal(payload));
+    }
+
+    /**
+     * @param bodyKb - size of the PR body in KB
+     * @return a synchronize payload of the fixture PR
+     * @throws IOException - if the fixture cannot be read
+     */
+    static ObjectNode payload(int bodyKb) throws IOException {
+        Path fixture = Path.of("src/test/resources/mock-github/repos", PRTests.REPOSITORY, "pulls/1.json");
+        ObjectNode pr = (ObjectNode) GitHubRest.MAPPER.readTree(Files.readString(fixture, StandardCharsets.UTF_8));
+        StringBuilder body = new StringBuilder(pr.path("body").asText());
+        while (body.length() < bodyKb * 1024) {
+            body.append("\r\n- Release notes: fixed \"issue\" #").append(body.length()).append(" in the spec");
+        }
+        pr.put("body", body.toString());
+        pr.set("head", branch("release", "0123456789abcdef0123456789abcdef01234567"));
+        pr.set("base", branch("master", "fedcba9876543210fedcba9876543210fedcba98"));
+        ObjectNode links = pr.putObject("_links");
+        for (String link : new String[] {"self", "html", "issue", "comments", "review_comments", "review_comment",
+                                         "commits", "statuses"}) {
+            links.putObject(link).put("href", "https://api.github.com/repos/" + PRTests.REPOSITORY + "/" + link);
+        }
+        pr.putArray("labels").addObject().put("name", "release").put("color", "ededed");
+        pr.put("merged", false).put("mergeable_state", "clean").put("commits", 3).put("additions", 12000)
+            .put("deletions", 10);
+
+        ObjectNode payload = GitHubRest.MAPPER.createObjectNode();
+        payload.put("action", "synchronize");
+        payload.put("number", pr.path("number").asInt());
+        payload.set("pull_request", pr);
+        payload.put("before", "00000000000000000000000000000000000000ff");
+        payload.put("after", "0123456789abcdef0123456789abcdef01234567");
+        payload.set("repository", repository(PRTests.REPOSITORY));
+        payload.set("sender", user("spec-lead"));
+        return payload;
+    }
+
+    static ObjectNode branch(String ref, String sha) {
+        ObjectNode branch = GitHubRest.MAPPER.createObjectNode();
+        branch.put("label", "jakartaredhat:" + ref).put("ref", ref).put("sha", sha);
+        branch.set("user", user("jakartaredhat"));
+        branch.set("repo", repository(PRTests.REPOSITORY));
+        return branch;
+    }
+
+    static ObjectNode repository(String fullName) {
+        ObjectNode repo = GitHubRest.MAPPER.createObjectNode();
+        repo.put("id", 100).put("node_id", "R_100").put("name", fullName.substring(fullName.indexOf('/') + 1))
+            .put("full_name", fullName).put("private", false).put("description", "Jakarta EE specification pages");
+        repo.set("owner", user(fullName.substring(0, fullName.indexOf('/'))));
+        // GitHub sends a url for nearly every resource of the repository
+        for (String resource : new String[] {"forks", "keys", "collaborators", "teams", "hooks", "issue_events",
+                                             "events", "assignees", "branches", "tags", "blobs", "git_tags", "git_refs",
+                                             "trees", "statuses", "languages", "stargazers", "contributors",
+                                             "subscribers", "subscription", "commits", "git_commits", "comments",
+                                             "issue_comment", "contents", "compare", "merges", "archive", "downloads",
+                                             "issues", "pulls", "milestones", "notifications", "labels", "releases",
+                                             "deployments"}) {
+            repo.put(resource + "_url", "https://api.github.com/repos/" + fullName + "/" + resource + "{/id}");
+        }
+        repo.put("created_at", "2020-01-01T00:00:00Z").put("updated_at", "2022-06-01T00:00:00Z")
+            .put("stargazers_count", 40).put("open_issues_count", 12).put("default_branch", "master");
+        return repo;
+    }
+
+    static ObjectNode user(String login) {
+        ObjectNode user = GitHubRest.MAPPER.createObjectNode();
+        user.put("login", login).put("id", 2).put("node_id", "U_2").put("type", "User").put("site_admin", false);
+        for (String resource : new String[] {"avatar", "html", "followers", "following", "gists", "starred",
+                                             "subscriptions", "organizations", "repos", "events", "received_events"}) {
+            user.put(resource + "_url", "https://api.github.com/users/" + login + "/" + resource);
+        }
+        return user;
+    }
+
+    @Benchmark
+    public WebhookPayload streaming() throws IOException, CloneNotSupportedException {
+        return WebhookPayload.read(new ByteArrayInputStream(payload), (Mac) prototype.clone(), signature);
+    }
+
+    @Benchmark
+    public Object buffered() throws IOException, GeneralSecurityException {
+        return buffered(new ByteArrayInputStream(payload), signature);
+    }
+
+    /**
+     * Reading a delivery before {@link WebhookPayload}
+     * @return the PR of the payload, or null if the signature does not match
+     */
+    static JsonNode buffered(InputStream body, String signature) throws IOException, GeneralSecurityException {
+        byte[] payload = body.readAllBytes();
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] expected = HexFormat.of().formatHex(mac.doFinal(payload)).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = signature.substring("sha256=".length()).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        JsonNode json = GitHubRest.MAPPER.readTree(payload);
+        return json.path("repository").path("full_name").asText().isEmpty() ? null : json.path("pull_request");
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                       .parent(new CommandLineOptions(args))
+                       .include(WebhookBenchmark.class.getSimpleName())
+                       .addProfiler(GCProfiler.class)
+                       .build())
+            .run();
+    }
+}
@@ -0,0 +1,123 @@
+package jakarta;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Local stand-in for GitHub's webhook deliveries, to try out {@link WebhookServer} without a public endpoint. Sends a
+ * mix of pull_request events, both reviewed and ignored ones, and issue_comment events for a PR of
+ * {@link PRTests#REPOSITORY}. The PR in the pull_request payloads is the recorded fixture of {@link MockGitHubServer},
+ * with a new head commit for every synchronize event and its {{base}} replaced by the GITHUB_API_URL environment
+ * variable, the url of the mock the reviewing daemon runs against. Deliveries are signed like GitHub's when the
+ * GITHUB_WEBHOOK_SECRET environment variable is set. Unsigned deliveries are only accepted by a daemon started with
+ * -Dreview.unsignedWebhooks=true, which then listens on the loopback interface only.
+ *
+ * Arguments: [webhook url (http://localhost:8080/)] [events (20)] [ms between events (100)] [PR number (1)]
+ */
+public class WebhookGenerator {
+    /** event and action of the deliveries, sent in turn */
+    static final String[][] EVENTS = {
+        {"pull_request", "synchronize"},
+        {"pull_request", "edited"},
+        {"pull_request", "labeled"},
+        {"issue_comment", "created"},
+        {"pull_request", "synchronize"},
+        {"issue_comment", "edited"},
+    };
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080/";
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long interval = args.length > 2 ? Long.parseLong(args[2]) : 100;
+        int prNumber = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        String secret = System.getenv("GITHUB_WEBHOOK_SECRET");
+        Path fixture = Path.of("src/test/resources/mock-github/repos", PRTests.REPOSITORY, "pulls/1.json");
+        String json = Files.readString(fixture, StandardCharsets.UTF_8);
+        String apiUrl = System.getenv("GITHUB_API_URL");
+        if (apiUrl != null) {
+            json = json.replace(MockGitHubServer.BASE_PLACEHOLDER, apiUrl);
+        }
+        ObjectNode pr = (ObjectNode) GitHubRest.MAPPER.readTree(json);
+        pr.put("number", prNumber);
+
+        HttpClient client = HttpClient.newHttpClient();
+        Map<Integer, Integer> statuses = new TreeMap<>();
+        Instant updated = Instant.parse(pr.path("updated_at").asText());
+        pr.putObject("base").put("ref", "master").put("sha", "%040x".formatted(0));
+        long start = System.nanoTime();
+        for (int n = 0; n < events; n++) {
+            String[] event = EVENTS[n % EVENTS.length];
+            if (event[0].equals("pull_request")) {
+                // Every event updates the PR, a synchronize pushes a new head commit
+                pr = pr.deepCopy();
+                pr.put("updated_at", updated.plusSeconds(n).toString());
+                if (event[1].equals("synchronize") || !pr.has("head")) {
+                    pr.putObject("head").put("ref", "release").put("sha", "%040x".formatted(n + 1));
+                }
+            }
+            byte[] payload = GitHubRest.MAPPER.writeValueAsBytes(payload(event[0], event[1], pr, n));
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .header("X-GitHub-Event", event[0])
+                .header("X-GitHub-Delivery", "delivery-" + n)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload));
+            if (secret != null) {
+                request.header("X-Hub-Signature-256", "sha256=" + HexFormat.of().formatHex(hmac(secret, payload)));
+            }
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            System.out.printf("%s.%s: %d %s\n", event[0], event[1], response.statusCode(), response.body());
+            statuses.merge(response.statusCode(), 1, Integer::sum);
+            Thread.sleep(interval);
+        }
+        System.out.printf("Sent %d events in %d ms, responses by status: %s\n", events,
+                          (System.nanoTime() - start) / 1_000_000, statuses);
+    }
+
+    /**
+     * @param event - the X-GitHub-Event
+     * @param action - the action of the event
+     * @param pr - the PR the event is about
+     * @param n - number of the delivery, to vary the payloads
+     * @return the payload of the event
+     */
+    static ObjectNode payload(String event, String action, ObjectNode pr, int n) {
+        ObjectNode payload = GitHubRest.MAPPER.createObjectNode();
+        payload.put("action", action);
+        if (event.equals("pull_request")) {
+            payload.put("number", pr.path("number").asInt());
+            payload.set("pull_request", pr);
+        } else {
+            ObjectNode issue = payload.putObject("issue");
+            issue.put("number", pr.path("number").asInt());
+            issue.put("state", "open");
+            issue.putObject("pull_request").put("url", pr.path("url").asText());
+            ObjectNode comment = payload.putObject("comment");
+            comment.put("id", 1000 + n);
+            comment.put("body", ChecklistComment.HEADER + "\n\nChecklist posted by the assignee");
+            comment.set("user", pr.path("assignee"));
+        }
+        payload.putObject("repository").put("full_name", PRTests.REPOSITORY);
+        payload.putObject("sender").put("login", pr.path("user").path("login").asText());
+        return payload;
+    }
+
+    static byte[] hmac(String secret, byte[] payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return mac.doFinal(payload);
+    }
+}
@@ -0,0 +1,439 @@
+package jakarta;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * The fields of a pull_request or issue_comment webhook payload that {@link WebhookServer} acts on, read with a
+ * streaming parser that skips everything else. Payloads carry the head and base repositories, the sender and
+ * several dozen URLs besides the PR, and run to hundreds of KB with a long PR body, so building a tree of the whole
+ * payload costs far more than the handful of fields a review needs.
+ */
+class WebhookPayload {
+    static final JsonFactory FACTORY = GitHubRest.MAPPER.getFactory();
+    static final String SIGNATURE_PREFIX = "sha256=";
+
+    String action = "";
+    /** full_name of the repository */
+    String repository = "";
+    /** The PR of a pull_request event, null for other events */
+    PullRequestData pullRequest;
+    /** state of the PR or issue */
+    String state = "";
+    /** updated_at of the PR, to order the deliveries of a PR */
+    String updatedAt = "";
+    /** Number of the issue of an issue_comment event, -1 for other events */
+    int issueNumber = -1;
+    /** true if the issue of an issue_comment event is a PR */
+    boolean issueIsPullRequest;
+    /** Body of the comment of an issue_comment event */
+    String commentBody = "";
+
+    /**
+     * @param prNumber - the PR the event is about
+     * @return the event as an {@link EventJournal} record: the PR number, and the fields read from the PR if there is
+     * one
+     */
+    byte[] toRecord(int prNumber) {
+        int bodyLength = pullRequest == null ? 0 : pullRequest.body.length();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + bodyLength);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(prNumber);
+            out.writeBoolean(pullRequest != null);
+            if (pullRequest != null) {
+                writeString(out, action);
+                writeString(out, repository);
+                writeString(out, state);
+                writeString(out, updatedAt);
+                writeString(out, pullRequest.title);
+                writeString(out, pullRequest.body);
+                writeString(out, pullRequest.url);
+                writeString(out, pullRequest.assignee);
+                writeString(out, pullRequest.commit);
+                out.writeInt(pullRequest.changedFiles);
+                out.writeInt(pullRequest.reviewComments);
+                out.writeInt(pullRequest.comments);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param record - a record written by {@link #toRecord(int)}
+     * @return the payload, with the PR number as the number of its issue or PR
+     * @throws IOException - if the record is truncated
+     */
+    static WebhookPayload fromRecord(byte[] record) throws IOException {
+        WebhookPayload payload = new WebhookPayload();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            payload.issueNumber = in.readInt();
+            if (in.readBoolean()) {
+                PullRequestData pr = new PullRequestData();
+                pr.number = payload.issueNumber;
+                payload.action = readString(in);
+                payload.repository = readString(in);
+                payload.state = readString(in);
+                payload.updatedAt = readString(in);
+                pr.title = readString(in);
+                pr.body = readString(in);
+                pr.url = readString(in);
+                pr.assignee = readString(in);
+                pr.commit = readString(in);
+                pr.changedFiles = in.readInt();
+                pr.reviewComments = in.readInt();
+                pr.comments = in.readInt();
+                payload.pullRequest = pr;
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * Write a string that may be too long for writeUTF, or null
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read a delivery, computing its signature as it streams through the parser
+     * @param body - the delivered body, read to the end
+     * @param mac - initialized HMAC of the webhook secret, or null to accept the delivery unsigned
+     * @param signature - the X-Hub-Signature-256 header, or null
+     * @return the payload, or null if there is a MAC and the signature is missing or does not match
+     * @throws JsonProcessingException - if the signature matches but the payload is not a JSON object
+     * @throws IOException - if the body cannot be read
+     */
+    static WebhookPayload read(InputStream body, Mac mac, String signature) throws IOException {
+        if (mac == null) {
+            WebhookPayload payload = read(body);
+            body.transferTo(OutputStream.nullOutputStream());
+            return payload;
+        }
+        if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            return null;
+        }
+        MacInputStream in = new MacInputStream(body, mac);
+        WebhookPayload payload = null;
+        JsonProcessingException malformed = null;
+        try {
+            payload = read(in);
+        } catch (JsonProcessingException e) {
+            malformed = e;
+        }
+        if (!isSigned(in.finish(), signature)) {
+            return null;
+        }
+        if (malformed != null) {
+            throw malformed;
+        }
+        return payload;
+    }
+
+    /**
+     * @param mac - the HMAC of the delivered body
+     * @param signature - the X-Hub-Signature-256 header
+     * @return true if the signature is the HMAC
+     */
+    static boolean isSigned(byte[] mac, String signature) {
+        try {
+            return MessageDigest.isEqual(mac, HexFormat.of().parseHex(signature, SIGNATURE_PREFIX.length(),
+                                                                      signature.length()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Read a payload, leaving the stream positioned after it
+     * @param in - the payload
+     * @return the fields of the payload
+     * @throws JsonProcessingException - if the payload is not a JSON object
+     * @throws IOException - if the payload cannot be read
+     */
+    static WebhookPayload read(InputStream in) throws IOException {
+        WebhookPayload payload = new WebhookPayload();
+        try (JsonParser parser = FACTORY.createParser(in)) {
+            // The caller drains the rest of the stream into the signature
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            expect(parser, JsonToken.START_OBJECT);
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                switch (field) {
+                case "action":
+                    payload.action = text(parser);
+                    break;
+                case "repository":
+                    expect(parser, JsonToken.START_OBJECT);
+                    for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+                        if (name.equals("full_name")) {
+                            payload.repository = text(parser);
+                        } else {
+                            skip(parser);
+                        }
+                    }
+                    break;
+                case "pull_request":
+                    payload.pullRequest = readPullRequest(parser, payload);
+                    break;
+                case "issue":
+                    readIssue(parser, payload);
+                    break;
+                case "comment":
+                    expect(parser, JsonToken.START_OBJECT);
+                    for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+                        if (name.equals("body")) {
+                            payload.commentBody = text(parser);
+                        } else {
+                            skip(parser);
+                        }
+                    }
+                    break;
+                default:
+                    skip(parser);
+                }
+            }
+        }
+        return payload;
+    }
+
+    private static PullRequestData readPullRequest(JsonParser parser, WebhookPayload payload) throws IOException {
+        PullRequestData pr = new PullRequestData();
+        String headSha = "";
+        String baseRef = "";
+        expect(parser, JsonToken.START_OBJECT);
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            switch (name) {
+            case "number":
+                pr.number = number(parser, -1);
+                break;
+            case "state":
+                payload.state = text(parser);
+                break;
+            case "title":
+                pr.title = text(parser);
+                break;
+            case "body":
+                pr.body = text(parser);
+                break;
+            case "issue_url":
+                pr.url = text(parser);
+                break;
+            case "updated_at":
+                payload.updatedAt = text(parser);
+                break;
+            case "assignee":
+                pr.assignee = login(parser);
+                break;
+            case "changed_files":
+                pr.changedFiles = number(parser, 0);
+                break;
+            case "comments":
+                pr.comments = number(parser, -1);
+                break;
+            case "review_comments":
+                pr.reviewComments = number(parser, -1);
+                break;
+            case "head":
+                headSha = field(parser, "sha");
+                break;
+            case "base":
+                baseRef = field(parser, "ref");
+                break;
+            default:
+                skip(parser);
+            }
+        }
+        pr.commit = headSha + " " + baseRef;
+        return pr;
+    }
+
+    private static void readIssue(JsonParser parser, WebhookPayload payload) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            switch (name) {
+            case "number":
+                payload.issueNumber = number(parser, -1);
+                break;
+            case "state":
+                payload.state = text(parser);
+                break;
+            case "pull_request":
+                payload.issueIsPullRequest = parser.nextToken() == JsonToken.START_OBJECT;
+                parser.skipChildren();
+                break;
+            default:
+                skip(parser);
+            }
+        }
+    }
+
+    /**
+     * @return the login of a user object, or null for a JSON null
+     */
+    private static String login(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        return fieldOfObject(parser, "login");
+    }
+
+    /**
+     * @return the text of the named field of the next object value, "" if it has none
+     */
+    private static String field(JsonParser parser, String field) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return "";
+        }
+        return fieldOfObject(parser, field);
+    }
+
+    private static String fieldOfObject(JsonParser parser, String field) throws IOException {
+        String value = "";
+        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+            if (name.equals(field)) {
+                value = text(parser);
+            } else {
+                skip(parser);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return the next value if it is a string, "" otherwise
+     */
+    private static String text(JsonParser parser) throws IOException {
+        String text = parser.nextTextValue();
+        if (text == null) {
+            parser.skipChildren();
+            return "";
+        }
+        return text;
+    }
+
+    /**
+     * @return the next value if it is an integer, the default otherwise
+     */
+    private static int number(JsonParser parser, int defaultValue) throws IOException {
+        int number = parser.nextIntValue(defaultValue);
+        parser.skipChildren();
+        return number;
+    }
+
+    private static void skip(JsonParser parser) throws IOException {
+        parser.nextToken();
+        parser.skipChildren();
+    }
+
+    private static void expect(JsonParser parser, JsonToken token) throws IOException {
+        if (parser.nextToken() != token) {
+            throw new JsonParseException(parser, "Expected " + token + " in webhook payload");
+        }
+    }
+
+    /**
+     * An input stream that feeds the bytes read through it to a MAC, so the signature of a delivery is computed while
+     * it is parsed instead of over a buffered copy
+     */
+    static class MacInputStream extends FilterInputStream {
+        final Mac mac;
+
+        /**
+         * @param in - the delivery
+         * @param mac - initialized MAC of the webhook secret
+         */
+        MacInputStream(InputStream in, Mac mac) {
+            super(in);
+            this.mac = mac;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                mac.update((byte) b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                mac.update(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes still count towards the signature
+            byte[] buffer = new byte[(int) Math.max(0, Math.min(n, 8192))];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * Read the rest of the stream and finish the MAC
+         * @return the MAC of everything read through this stream
+         * @throws IOException - on failure
+         */
+        byte[] finish() throws IOException {
+            byte[] buffer = new byte[512];
+            while (read(buffer, 0, buffer.length) >= 0) {
+                // The rest only feeds the MAC
+            }
+            return mac.doFinal();
+        }
+    }
+}
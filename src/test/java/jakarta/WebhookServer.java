@@ -0,0 +1,311 @@
+package jakarta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Daemon mode of the review: an HTTP endpoint for the GitHub webhooks of the spec repository that reviews only the PR
+ * an event is about. The {@link ReviewPipeline} with its client, caches and executors lives as long as the server, so
+ * an event pays for neither JVM startup nor client construction.
+ *
+ * Reviews are triggered by pull_request events that can change the checklist (opened, edited, synchronize, ...) on
+ * open PRs, and by issue_comment events that post or edit a checklist comment on a PR. Comments carrying the review
+ * hash were written by the pipeline itself and are ignored, so a checklist update does not trigger another review.
+ * Events are answered with 202 before the review runs, as GitHub gives up on deliveries after 10 seconds; a GET
+ * answers with the run summary. Deliveries without a matching X-Hub-Signature-256 are refused with 401. Without a
+ * secret, which is only meant for {@link WebhookGenerator}, signatures are not checked and the server only listens on
+ * the loopback interface.
+ * The signature is computed as the delivery streams through a parser that only picks out the fields a review needs,
+ * see {@link WebhookPayload}, instead of over a buffered copy that is then parsed into a tree.
+ *
+ * The reviews go through a {@link ReviewQueue}, which collapses the events of a PR into one review once none has
+ * arrived for review.quietWindow ms (default 5 seconds), at the latest review.maxDelay ms (default 1 minute) after the
+ * first. The review takes the PR body, assignee and head commit from the newest pull_request payload among the events,
+ * and only fetches the PR from the API if none of them was a pull_request event.
+ */
+class WebhookServer implements AutoCloseable {
+    /** pull_request actions after which the checklist may read differently */
+    static final Set<String> PULL_REQUEST_ACTIONS = Set.of("opened", "reopened", "edited", "synchronize", "assigned",
+                                                           "unassigned", "ready_for_review");
+    static final long QUIET_WINDOW = Long.getLong("review.quietWindow", 5_000);
+    static final long MAX_DELAY = Long.getLong("review.maxDelay", 60_000);
+
+    final ReviewPipeline pipeline;
+    final String repository;
+    /** HMAC key of the webhook secret, or null to accept unsigned deliveries */
+    final SecretKeySpec secret;
+    /** HMAC of the secret that every delivery's HMAC is cloned from, or null */
+    private final Mac macPrototype;
+    final AtomicLong received = new AtomicLong();
+    final AtomicLong ignored = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+    final ReviewQueue queue;
+    final EventJournal journal;
+    /** The offset up to which the accepted events have been reviewed */
+    private final EventJournal.Consumer reviewed;
+    /** The events of each PR waiting for its review */
+    private final Map<Integer, PendingEvents> pending = new HashMap<>();
+    /** Journal offsets of the accepted events that are not reviewed yet */
+    private final TreeSet<Long> unreviewed = new TreeSet<>();
+    private final ExecutorService httpExecutor = ReviewExecutors.newIoExecutor();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private HttpServer server;
+
+    /**
+     * @param pipeline - the pipeline the reviews run on
+     * @param secret - the webhook secret, or null to accept unsigned deliveries
+     * @param concurrency - maximum number of PRs reviewed at the same time
+     * @param journal - the journal the accepted events are written to
+     * @throws IOException - if the journal offset of the reviews cannot be read
+     */
+    WebhookServer(ReviewPipeline pipeline, String secret, int concurrency, EventJournal journal) throws IOException {
+        this.pipeline = pipeline;
+        this.journal = journal;
+        this.reviewed = journal.consumer("reviews");
+        this.repository = pipeline.specRepo.getFullName();
+        this.secret = secret == null ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.macPrototype = secret == null ? null : hmac(this.secret);
+        this.queue = new ReviewQueue(this::review, QUIET_WINDOW, MAX_DELAY, concurrency);
+    }
+
+    /**
+     * The events of a PR waiting for its review
+     */
+    static class PendingEvents {
+        /** The newest of the pull_request events, or null if there were only other events */
+        WebhookPayload newest;
+        /** Journal offsets of the events */
+        final List<Long> offsets = new ArrayList<>();
+    }
+
+    /**
+     * Queue the reviews of the journaled events that were not reviewed before the last stop, and start accepting
+     * webhook deliveries on all interfaces, or only on the loopback interface without a secret
+     * @param port - the port, 0 for a free one
+     * @return this server
+     * @throws IOException - if the journal cannot be read or the port cannot be bound
+     */
+    WebhookServer start(int port) throws IOException {
+        int replayed = journal.replay(reviewed.offset(), (offset, record) -> {
+            WebhookPayload payload = WebhookPayload.fromRecord(record);
+            accept(payload.issueNumber, payload, offset);
+            queue.submit(payload.issueNumber);
+        });
+        if (replayed > 0) {
+            System.out.printf("+++ Replaying %d journaled events\n", replayed);
+        }
+        InetSocketAddress address = secret == null ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                                                   : new InetSocketAddress(port);
+        server = HttpServer.create(address, 50);
+        server.setExecutor(httpExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+        System.out.printf("+++ Receiving webhooks of %s on %s port %d, signatures %s\n", repository,
+                          secret == null ? "loopback" : "all interfaces", port(), secret == null ? "not checked" : "checked");
+        return this;
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return statistics of the deliveries so far
+     */
+    String summary() {
+        return "+++ Webhooks: " + received.get() + " received, " + ignored.get() + " ignored, " + rejected.get()
+               + " rejected, " + queue.summary();
+    }
+
+    /**
+     * Wait until the server is closed
+     * @throws InterruptedException - if interrupted while waiting
+     */
+    void awaitClose() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Stop accepting deliveries and run the queued reviews, see {@link ReviewQueue#close()}
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        httpExecutor.shutdownNow();
+        queue.close();
+        System.out.println(summary());
+        stopped.countDown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 200, pipeline.summary() + "\n" + summary());
+                return;
+            }
+            received.incrementAndGet();
+            String event = exchange.getRequestHeaders().getFirst("X-GitHub-Event");
+            WebhookPayload payload;
+            try (InputStream body = exchange.getRequestBody()) {
+                payload = WebhookPayload.read(body, secret == null ? null : newMac(),
+                                              exchange.getRequestHeaders().getFirst("X-Hub-Signature-256"));
+            } catch (JsonProcessingException e) {
+                rejected.incrementAndGet();
+                System.out.printf("--- Bad %s webhook payload: %s\n", event, e.getOriginalMessage());
+                respond(exchange, 400, "Bad payload");
+                return;
+            }
+            if (payload == null) {
+                rejected.incrementAndGet();
+                respond(exchange, 401, "Bad signature");
+                return;
+            }
+            int prNumber = prNumber(event, payload);
+            if (prNumber < 0) {
+                ignored.incrementAndGet();
+                respond(exchange, 200, "Ignored");
+                return;
+            }
+            try {
+                accept(prNumber, payload, -1);
+            } catch (IOException e) {
+                System.out.printf("--- Failed to journal %s event for PR#%d: %s\n", event, prNumber, e);
+                respond(exchange, 503, "Event not stored");
+                return;
+            }
+            respond(exchange, 202, "Review of PR#" + prNumber + " queued");
+            queue.submit(prNumber);
+        }
+    }
+
+    /**
+     * @return an HMAC initialized with the secret, cloned from a prototype to save the provider lookup
+     */
+    private Mac newMac() {
+        try {
+            return (Mac) macPrototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return hmac(secret);
+        }
+    }
+
+    private static Mac hmac(SecretKeySpec secret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(secret);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    /**
+     * @param event - the X-GitHub-Event header
+     * @param payload - the event payload
+     * @return the number of the PR of the repository to review, or -1 if the event does not call for a review
+     */
+    int prNumber(String event, WebhookPayload payload) {
+        if (!repository.equalsIgnoreCase(payload.repository)) {
+            return -1;
+        }
+        String action = payload.action;
+        boolean open = payload.state.equals("open");
+        if ("pull_request".equals(event) && payload.pullRequest != null) {
+            if (PULL_REQUEST_ACTIONS.contains(action) && open) {
+                return payload.pullRequest.number;
+            }
+        } else if ("issue_comment".equals(event)) {
+            String comment = payload.commentBody;
+            if ((action.equals("created") || action.equals("edited")) && payload.issueIsPullRequest && open
+                && ChecklistComment.isChecklist(comment) && !comment.contains(ChecklistComment.MARKER_PREFIX)) {
+                return payload.issueNumber;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add an event to those waiting for the review of its PR
+     * @param prNumber - the PR number in the repository
+     * @param payload - the event
+     * @param offset - offset of the event in the journal, or -1 to append it to the journal
+     * @throws IOException - if the event cannot be appended to the journal
+     */
+    private synchronized void accept(int prNumber, WebhookPayload payload, long offset) throws IOException {
+        if (offset < 0) {
+            offset = journal.append(payload.toRecord(prNumber));
+        }
+        unreviewed.add(offset);
+        PendingEvents events = pending.computeIfAbsent(prNumber, n -> new PendingEvents());
+        events.offsets.add(offset);
+        // Deliveries can arrive out of order, keep the PR that was updated last
+        if (payload.pullRequest != null
+            && (events.newest == null || payload.updatedAt.compareTo(events.newest.updatedAt) >= 0)) {
+            events.newest = payload;
+        }
+    }
+
+    /**
+     * Review a PR from the newest pull_request payload received for it, or fetch the PR if only other events came in.
+     * The events then count as reviewed, whether or not the review succeeded.
+     * @param prNumber - the PR number in the repository
+     * @throws IOException - on failure
+     */
+    private void review(int prNumber) throws IOException {
+        PendingEvents events;
+        synchronized (this) {
+            events = pending.remove(prNumber);
+        }
+        if (events == null) {
+            // A review that started after the events were accepted already covered them
+            return;
+        }
+        try {
+            if (events.newest == null) {
+                pipeline.review(prNumber);
+            } else {
+                pipeline.reviewEvent(events.newest.pullRequest);
+            }
+        } finally {
+            reviewed(events.offsets);
+        }
+    }
+
+    private synchronized void reviewed(List<Long> offsets) throws IOException {
+        unreviewed.removeAll(offsets);
+        reviewed.commit(unreviewed.isEmpty() ? journal.end() : unreviewed.first());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}